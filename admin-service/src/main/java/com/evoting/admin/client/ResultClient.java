@@ -10,4 +10,12 @@ import java.util.Map;
 public interface ResultClient {
     @PostMapping("/result/{electionId}/publish")
     void publishResults(@PathVariable("electionId") Integer electionId, @RequestBody Map<Integer, Long> counts);
+
+    @PostMapping("/result/{electionId}/publish/compact")
+    void publishCompactResults(@PathVariable("electionId") Integer electionId,
+            @RequestBody VoteClient.TallyDto tally);
+
+    // Instant-runoff rounds over the election's ranked ballots, if it has any
+    @PostMapping("/result/{electionId}/runoff")
+    void tabulateRunoff(@PathVariable("electionId") Integer electionId);
 }
@@ -3,10 +3,28 @@ package com.evoting.admin.client;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import java.util.Map;
 
 @FeignClient(name = "VOTE-SERVICE")
 public interface VoteClient {
     @GetMapping("/vote/{electionId}/tally")
     Map<Integer, Long> getTally(@PathVariable("electionId") Integer electionId);
+
+    @GetMapping("/vote/{electionId}/tally/compact")
+    TallyDto getCompactTally(@PathVariable("electionId") Integer electionId);
+
+    // Fences the election: later casts are rejected and the tally stops at the returned watermark
+    @PostMapping("/vote/{electionId}/close")
+    void closeElection(@PathVariable("electionId") Integer electionId);
+
+    @PostMapping("/vote/{electionId}/archive")
+    void archiveElection(@PathVariable("electionId") Integer electionId);
+
+    // Candidate ids sorted ascending with their counts at the same positions
+    @lombok.Data
+    class TallyDto {
+        private int[] candidates;
+        private long[] counts;
+    }
 }
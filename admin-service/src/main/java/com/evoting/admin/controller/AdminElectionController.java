@@ -29,7 +29,9 @@ public class AdminElectionController {
 
     @PutMapping("/{id}/close")
     public ResponseEntity<?> closeElection(@PathVariable Integer id) {
-        return ResponseEntity.ok(client.updateStatus(id, "CLOSED"));
+        ElectionClient.ElectionDto election = client.updateStatus(id, "CLOSED");
+        voteClient.closeElection(id);
+        return ResponseEntity.ok(election);
     }
 
     @PutMapping("/{id}/status")
@@ -56,16 +58,23 @@ public class AdminElectionController {
     public ResponseEntity<?> publishResults(@PathVariable Integer id) {
         // 1. Close Election (if not already?) - Optional logic
         client.updateStatus(id, "CLOSED");
+        // Fence it in vote-service, so the tally below covers exactly the votes accepted before close
+        voteClient.closeElection(id);
 
-        // 2. Tally Votes
-        java.util.Map<Integer, Long> results = voteClient.getTally(id);
+        // 2. Tally Votes (array-based tally, forwarded as is)
+        com.evoting.admin.client.VoteClient.TallyDto results = voteClient.getCompactTally(id);
 
         // 3. Publish to Result Service
-        resultClient.publishResults(id, results);
+        resultClient.publishCompactResults(id, results);
+        // Round-by-round counts for ranked ballots; none are saved for single-choice elections
+        resultClient.tabulateRunoff(id);
 
         // 4. Mark Election as ARCHIVED
         client.updateStatus(id, "ARCHIVED");
 
+        // 5. Move its ballots out of the hot vote table
+        voteClient.archiveElection(id);
+
         return ResponseEntity.ok("Results published successfully");
     }
 }
@@ -0,0 +1,15 @@
+package com.evoting.election.client;
+
+import com.evoting.election.model.Election;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+@FeignClient(name = "VOTE-SERVICE")
+public interface VoteClient {
+
+    // Refreshes vote-service's cached status, window and candidates of the election
+    @PutMapping("/vote/elections/{id}")
+    void updateElection(@PathVariable("id") Integer id, @RequestBody Election election);
+}
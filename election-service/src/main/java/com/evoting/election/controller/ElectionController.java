@@ -32,6 +32,11 @@ public class ElectionController {
         return service.getPublicElections();
     }
 
+    @GetMapping("/{id}")
+    public ResponseEntity<Election> get(@PathVariable Integer id) {
+        return ResponseEntity.ok(service.getElection(id));
+    }
+
     @PutMapping("/{id}/status")
     public ResponseEntity<Election> updateStatus(
             @PathVariable Integer id,
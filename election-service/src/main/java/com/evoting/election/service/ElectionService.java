@@ -1,19 +1,23 @@
 package com.evoting.election.service;
 
+import com.evoting.election.client.VoteClient;
 import com.evoting.election.dto.ElectionRequest;
 import com.evoting.election.model.Election;
 import com.evoting.election.model.ElectionStatus;
 import com.evoting.election.repository.ElectionRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class ElectionService {
 
     private final ElectionRepository repository;
+    private final VoteClient voteClient;
 
     public Election createElection(ElectionRequest request) {
         Election election = Election.builder()
@@ -36,11 +40,16 @@ public class ElectionService {
         // Might also want creation status == PUBLISHED for results later
     }
 
+    public Election getElection(Integer id) {
+        return repository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Election not found"));
+    }
+
     public Election updateStatus(Integer id, ElectionStatus status) {
         Election election = repository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Election not found"));
         election.setStatus(status);
-        return repository.save(election);
+        return notifyVoteService(repository.save(election));
     }
 
     public Election addCandidate(Integer electionId, Integer candidateId) {
@@ -50,7 +59,18 @@ public class ElectionService {
             throw new RuntimeException("Cannot add candidate to non-draft election");
         }
         election.getCandidateIds().add(candidateId);
-        return repository.save(election);
+        return notifyVoteService(repository.save(election));
+    }
+
+    // Best effort: reaches one vote-service replica, the others reload on their own refresh
+    private Election notifyVoteService(Election election) {
+        try {
+            voteClient.updateElection(election.getId(), election);
+        } catch (Exception e) {
+            log.warn("Could not notify vote-service of election {} ({}): {}", election.getId(),
+                    election.getStatus(), e.getMessage());
+        }
+        return election;
     }
 
     public void deleteElection(Integer id) {
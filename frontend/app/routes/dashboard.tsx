@@ -4,6 +4,7 @@ import type {
   Election,
   Elector,
   UserVote,
+  VotePage,
   VoteRequest,
   VoteStats,
   Voter,
@@ -144,24 +145,38 @@ export default function Dashboard() {
         setElectors(electorsMap);
       }
 
-      // Fetch user's votes
+      // Fetch user's votes, following the cursor to the last page
       let userVotesData: UserVote[] = [];
       if (userId) {
         try {
-          const votesResponse = await fetch(
-            `http://localhost:8080/vote/my-votes`,
-            {
-              headers: {
-                Authorization: `Bearer ${AuthService.getAccessToken()}`,
-                "Content-Type": "application/json",
-                "X-User-Id": String(user?.userId || ""),
-              },
+          let cursor: string | null = null;
+          do {
+            const query: string =
+              cursor === null ? "?limit=100" : `?limit=100&after=${cursor}`;
+            const votesResponse: Response = await fetch(
+              `http://localhost:8080/vote/my-votes${query}`,
+              {
+                headers: {
+                  Authorization: `Bearer ${AuthService.getAccessToken()}`,
+                  "Content-Type": "application/json",
+                  "X-User-Id": String(user?.userId || ""),
+                },
+              }
+            );
+
+            if (!votesResponse.ok) {
+              break;
             }
-          );
-
-          if (votesResponse.ok) {
-            userVotesData = await votesResponse.json();
-          }
+            const page: VotePage = await votesResponse.json();
+            userVotesData = userVotesData.concat(
+              page.items.map((item) => ({
+                electionId: item.electionId,
+                candidateId: item.candidateId,
+                votedAt: item.timestamp,
+              }))
+            );
+            cursor = page.nextCursor;
+          } while (cursor !== null);
         } catch (error) {
           console.error("Error fetching user votes:", error);
         }
@@ -245,6 +260,8 @@ export default function Dashboard() {
           Authorization: `Bearer ${AuthService.getAccessToken()}`,
           "Content-Type": "application/json",
           "X-User-Id": String(user?.userId || ""),
+          // Same ballot, same key: a resubmitted vote is answered with the original result
+          "Idempotency-Key": `vote-${electionId}-${candidateId}`,
         },
         body: JSON.stringify(voteData),
       });
@@ -317,7 +334,7 @@ export default function Dashboard() {
 
   const getVotedElector = (electionId: number) => {
     const vote = userVotes.find((v) => v.electionId === electionId);
-    if (!vote) return null;
+    if (!vote || vote.candidateId === null) return null;
     return electors.get(vote.candidateId);
   };
 
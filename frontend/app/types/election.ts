@@ -60,10 +60,26 @@ export interface VoteStats {
 
 export interface UserVote {
   electionId: number;
-  candidateId: number;
+  // null with ledger storage, where the ballot is not linked to the voter
+  candidateId: number | null;
   votedAt: string;
 }
 
+// One entry of GET /vote/my-votes
+export interface VoteView {
+  // Vote ids exceed Number.MAX_SAFE_INTEGER, so they come as strings
+  id: string;
+  electionId: number;
+  candidateId: number | null;
+  timestamp: string;
+}
+
+// GET /vote/my-votes: newest first; pass nextCursor back as ?after= until it is null
+export interface VotePage {
+  items: VoteView[];
+  nextCursor: string | null;
+}
+
 export interface Voter {
   id: number;
   userId: number;
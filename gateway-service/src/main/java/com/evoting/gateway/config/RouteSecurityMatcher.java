@@ -0,0 +1,273 @@
+package com.evoting.gateway.config;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+
+// Character trie over the configured route patterns, built once at startup. A lookup walks the path
+// once and keeps the deepest "/**" rule passed on a segment boundary, so the most specific pattern
+// wins without allocating. A "*" segment is a separate branch of the node after its '/', and a
+// lookup only backtracks into it where the literal branch of that segment matches nothing.
+@Component
+public class RouteSecurityMatcher {
+
+    // Used when gateway.security.routes is not configured
+    private static final Map<String, String> DEFAULT_ROUTES = Map.of(
+            "/auth/register", "open",
+            "/auth/login", "open",
+            "/eureka/**", "open"
+    );
+
+    private final Node root = new Node();
+    private final Rule defaultRule;
+
+    public RouteSecurityMatcher(RouteSecurityProperties properties) {
+        this.defaultRule = Rule.parse(properties.defaultAccess());
+        Map<String, String> routes = properties.routes() != null && !properties.routes().isEmpty()
+                ? properties.routes() : DEFAULT_ROUTES;
+        routes.forEach((pattern, access) -> add(pattern, Rule.parse(access)));
+    }
+
+    // Rule of the most specific pattern covering the raw (still encoded) request path, or null for a path
+    // the services could read differently from the trie: "." or ".." segments, ';' path parameters, '\',
+    // encoded '/', ';', '.', '\' or '%', or a malformed escape. Any other escape is decoded before matching.
+    public Rule match(String rawPath) {
+        if (hasAmbiguousChar(rawPath)) {
+            return null;
+        }
+        String path;
+        try {
+            path = rawPath.indexOf('%') < 0 ? rawPath : UriUtils.decode(rawPath, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (hasDotSegment(path)) {
+            return null;
+        }
+        Rule rule = match(root, path, 0, null);
+        return rule != null ? rule : defaultRule;
+    }
+
+    // Most specific rule for path[from..] below node, or best when nothing deeper matches. Where a
+    // literal segment and "*" both lead somewhere, the literal branch is tried first and wins.
+    private static Rule match(Node node, String path, int from, Rule best) {
+        int length = path.length();
+        for (int i = from; i < length; i++) {
+            char c = path.charAt(i);
+            boolean segmentStart = i > 0 && path.charAt(i - 1) == '/';
+            if (c == '/') {
+                // "//" is a single separator downstream
+                if (segmentStart) {
+                    continue;
+                }
+                if (node.subtree != null) {
+                    best = node.subtree;
+                }
+            } else if (segmentStart && node.wildcard != null) {
+                Node literal = node.child(c);
+                if (literal != null) {
+                    Rule rule = match(literal, path, i + 1, null);
+                    if (rule != null) {
+                        return rule;
+                    }
+                }
+                int end = path.indexOf('/', i);
+                Rule rule = match(node.wildcard, path, end < 0 ? length : end, null);
+                return rule != null ? rule : best;
+            }
+            node = node.child(c);
+            if (node == null) {
+                return best;
+            }
+        }
+        if (node.exact != null) {
+            return node.exact;
+        }
+        return node.subtree != null ? node.subtree : best;
+    }
+
+    // "*" stands for exactly one non-empty segment; "/**" is only allowed at the end
+    private void add(String pattern, Rule rule) {
+        if (!pattern.startsWith("/")) {
+            throw new IllegalArgumentException("Route pattern must start with '/': " + pattern);
+        }
+        boolean subtree = pattern.endsWith("/**");
+        String literal = subtree ? pattern.substring(0, pattern.length() - 3) : pattern;
+        Node node = root;
+        for (int i = 0; i < literal.length(); i++) {
+            char c = literal.charAt(i);
+            if (c != '*') {
+                node = node.childOrCreate(c);
+                continue;
+            }
+            boolean wholeSegment = literal.charAt(i - 1) == '/'
+                    && (i + 1 == literal.length() || literal.charAt(i + 1) == '/');
+            if (!wholeSegment) {
+                throw new IllegalArgumentException("Wildcards must be a whole segment (/*/) or a trailing /**: "
+                        + pattern);
+            }
+            node = node.wildcardOrCreate();
+        }
+        if (subtree) {
+            node.subtree = rule;
+        } else {
+            node.exact = rule;
+        }
+    }
+
+    private static boolean hasAmbiguousChar(String path) {
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == ';' || c == '\\') {
+                return true;
+            }
+            if (c == '%' && i + 2 < path.length() && isReservedEscape(path.charAt(i + 1), path.charAt(i + 2))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // %2F '/', %3B ';', %2E '.', %5C '\', %25 '%' in either case
+    private static boolean isReservedEscape(char high, char low) {
+        char upper = Character.toUpperCase(low);
+        return switch (high) {
+            case '2' -> upper == 'F' || upper == 'E' || upper == '5';
+            case '3' -> upper == 'B';
+            case '5' -> upper == 'C';
+            default -> false;
+        };
+    }
+
+    private static boolean hasDotSegment(String path) {
+        int segment = 0;
+        for (int i = 0; i <= path.length(); i++) {
+            if (i == path.length() || path.charAt(i) == '/') {
+                if (isDotSegment(path, segment, i)) {
+                    return true;
+                }
+                segment = i + 1;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isDotSegment(String path, int from, int to) {
+        int length = to - from;
+        return (length == 1 || length == 2) && path.charAt(from) == '.' && path.charAt(to - 1) == '.';
+    }
+
+    public static final class Rule {
+
+        private static final String[] NO_ROLES = new String[0];
+
+        private final boolean open;
+        private final String[] roles;
+
+        private Rule(boolean open, String[] roles) {
+            this.open = open;
+            this.roles = roles;
+        }
+
+        static Rule parse(String access) {
+            String value = access == null ? "" : access.trim();
+            if (value.equalsIgnoreCase("open")) {
+                return new Rule(true, NO_ROLES);
+            }
+            if (value.isEmpty() || value.equalsIgnoreCase("authenticated")) {
+                return new Rule(false, NO_ROLES);
+            }
+            return new Rule(false, Arrays.stream(value.split(","))
+                    .map(String::trim)
+                    .filter(role -> !role.isEmpty())
+                    .map(role -> role.toUpperCase(Locale.ROOT))
+                    .toArray(String[]::new));
+        }
+
+        public boolean isOpen() {
+            return open;
+        }
+
+        // The roles claim is a role name, possibly comma-separated, or a list of them
+        public boolean permits(Object granted) {
+            if (roles.length == 0) {
+                return true;
+            }
+            for (String role : roles) {
+                if (granted instanceof String names && hasRole(names, role)) {
+                    return true;
+                }
+                if (granted instanceof Collection<?> names && names.contains(role)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Compares each comma-separated name in place instead of splitting the claim
+        private static boolean hasRole(String names, String role) {
+            int from = 0;
+            while (from <= names.length()) {
+                int end = names.indexOf(',', from);
+                if (end < 0) {
+                    end = names.length();
+                }
+                int start = from;
+                while (start < end && names.charAt(start) == ' ') {
+                    start++;
+                }
+                int stop = end;
+                while (stop > start && names.charAt(stop - 1) == ' ') {
+                    stop--;
+                }
+                if (stop - start == role.length() && names.regionMatches(start, role, 0, role.length())) {
+                    return true;
+                }
+                from = end + 1;
+            }
+            return false;
+        }
+    }
+
+    private static final class Node {
+        private char[] labels = new char[0];
+        private Node[] children = new Node[0];
+        // Stands for one whole segment, "*" in a pattern
+        private Node wildcard;
+        private Rule exact;
+        private Rule subtree;
+
+        Node child(char c) {
+            for (int i = 0; i < labels.length; i++) {
+                if (labels[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        Node childOrCreate(char c) {
+            Node child = child(c);
+            if (child == null) {
+                child = new Node();
+                labels = Arrays.copyOf(labels, labels.length + 1);
+                children = Arrays.copyOf(children, children.length + 1);
+                labels[labels.length - 1] = c;
+                children[children.length - 1] = child;
+            }
+            return child;
+        }
+
+        Node wildcardOrCreate() {
+            if (wildcard == null) {
+                wildcard = new Node();
+            }
+            return wildcard;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.evoting.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+// Route pattern -> "open", "authenticated" or a comma-separated list of roles. Patterns are paths
+// where "*" matches one segment, optionally ending in "/**"; keys need the bracket form in YAML,
+// e.g. "[/admin/**]": ADMIN.
+@ConfigurationProperties(prefix = "gateway.security")
+public record RouteSecurityProperties(@DefaultValue("authenticated") String defaultAccess,
+        Map<String, String> routes) {
+}
@@ -1,32 +1,102 @@
 package com.evoting.gateway.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.concurrent.TimeUnit;
 
+// Verifies tokens with a parser built once from the decoded key. Verified claims are cached under
+// the token's SHA-256 until the token's exp, so a repeat token costs a digest and a lookup instead
+// of an HMAC check and a JSON parse; tokens themselves are never kept.
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
 
-    public void validateToken(final String token) {
-        Jwts.parserBuilder().setSigningKey(getSignKey()).build().parseClaimsJws(token);
+    private final JwtParser parser;
+    private final long maxTtlNanos;
+    private final Cache<TokenDigest, Claims> verified;
+
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+            @Value("${jwt.claims-cache.max-tokens:100000}") long maxTokens,
+            @Value("${jwt.claims-cache.max-ttl-seconds:3600}") long maxTtlSeconds) {
+        this.parser = Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret))).build();
+        this.maxTtlNanos = TimeUnit.SECONDS.toNanos(maxTtlSeconds);
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxTokens)
+                .expireAfter(new Expiry<TokenDigest, Claims>() {
+                    @Override
+                    public long expireAfterCreate(TokenDigest key, Claims claims, long currentTime) {
+                        return ttlNanos(claims);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(TokenDigest key, Claims claims, long currentTime,
+                            long currentDuration) {
+                        return ttlNanos(claims);
+                    }
+
+                    @Override
+                    public long expireAfterRead(TokenDigest key, Claims claims, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
-    private Key getSignKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    // Claims of a valid token; throws a JwtException for an invalid or expired one
+    public Claims verify(String token) {
+        TokenDigest digest = TokenDigest.of(token);
+        Claims claims = verified.getIfPresent(digest);
+        if (claims != null) {
+            // Eviction is not instant, so exp is checked again
+            Date expiration = claims.getExpiration();
+            if (expiration == null || expiration.getTime() > System.currentTimeMillis()) {
+                return claims;
+            }
+            verified.invalidate(digest);
+            throw new ExpiredJwtException(null, claims, "JWT expired at " + expiration);
+        }
+        claims = parser.parseClaimsJws(token).getBody();
+        verified.put(digest, claims);
+        return claims;
     }
 
-    public Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(getSignKey()).build().parseClaimsJws(token).getBody();
+    private long ttlNanos(Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            return maxTtlNanos;
+        }
+        long remaining = TimeUnit.MILLISECONDS.toNanos(expiration.getTime() - System.currentTimeMillis());
+        return Math.max(0, Math.min(remaining, maxTtlNanos));
+    }
+
+    private record TokenDigest(long a, long b, long c, long d) {
+
+        static TokenDigest of(String token) {
+            ByteBuffer hash = ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8)));
+            return new TokenDigest(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+        }
     }
 }
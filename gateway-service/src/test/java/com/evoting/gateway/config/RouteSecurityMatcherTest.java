@@ -0,0 +1,127 @@
+package com.evoting.gateway.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RouteSecurityMatcherTest {
+
+    private final RouteSecurityMatcher matcher = matcher(routes(
+            "/auth/login", "open",
+            "/eureka/**", "open",
+            "/admin/**", "ADMIN",
+            "/vote/elections/**", "ADMIN",
+            "/vote/my-votes", "VOTER",
+            "/vote/*/close", "ADMIN",
+            "/vote/*/archive/**", "ADMIN",
+            "/vote/*/tally/**", "ADMIN",
+            "/vote/*/live-tally", "ADMIN",
+            "/vote/*/turnout", "ADMIN",
+            "/vote/*/audit/**", "ADMIN",
+            "/vote/*/merkle/*", "open"));
+
+    @Test
+    void exactAndSubtreePatterns() {
+        assertTrue(matcher.match("/auth/login").isOpen());
+        assertFalse(matcher.match("/auth/login2").isOpen());
+        assertTrue(matcher.match("/eureka").isOpen());
+        assertTrue(matcher.match("/eureka/apps/x").isOpen());
+        assertAdminOnly("/admin");
+        assertAdminOnly("/admin/voters/3");
+        assertFalse(matcher.match("/administrator").isOpen());
+        assertTrue(matcher.match("/administrator").permits("VOTER"));
+    }
+
+    @Test
+    void perElectionAdminEndpointsNeedAdmin() {
+        assertAdminOnly("/vote/12/close");
+        assertAdminOnly("/vote/12/archive");
+        assertAdminOnly("/vote/12/archive/tally");
+        assertAdminOnly("/vote/12/tally");
+        assertAdminOnly("/vote/12/tally/report");
+        assertAdminOnly("/vote/12/tally/compact");
+        assertAdminOnly("/vote/12/live-tally");
+        assertAdminOnly("/vote/12/turnout");
+        assertAdminOnly("/vote/12/audit/sample");
+        assertAdminOnly("//vote//12//close");
+    }
+
+    @Test
+    void wildcardMatchesExactlyOneSegment() {
+        // Default rule: any authenticated user
+        assertTrue(matcher.match("/vote/12/live-tally/x").permits("VOTER"));
+        assertTrue(matcher.match("/vote/close").permits("VOTER"));
+        assertTrue(matcher.match("/vote/1/2/close").permits("VOTER"));
+        assertTrue(matcher.match("/vote/12/closed").permits("VOTER"));
+        assertTrue(matcher.match("/vote/12/merkle/root").isOpen());
+        assertFalse(matcher.match("/vote/12/merkle/root/x").isOpen());
+    }
+
+    @Test
+    void literalSegmentBeatsWildcard() {
+        assertTrue(matcher.match("/vote/my-votes").permits("VOTER"));
+        assertFalse(matcher.match("/vote/my-votes").permits("ADMIN"));
+        assertAdminOnly("/vote/my-votes/close");
+        assertAdminOnly("/vote/elections/close");
+    }
+
+    @Test
+    void dotSegmentsAreRejected() {
+        assertNull(matcher.match("/vote/12/../close"));
+        assertNull(matcher.match("/vote/./12/close"));
+        assertNull(matcher.match("/vote/12/tally/.."));
+        assertNull(matcher.match("/vote/12/%2e%2e/close"));
+    }
+
+    @Test
+    void pathParametersAndEncodedSeparatorsAreRejected() {
+        assertNull(matcher.match("/vote/5/close;x"));
+        assertNull(matcher.match("/admin;x/elections"));
+        assertNull(matcher.match("/vote/5%2Fclose"));
+        assertNull(matcher.match("/vote/5%2fclose"));
+        assertNull(matcher.match("/vote/5/close%3Bx"));
+        assertNull(matcher.match("/admin%3bx/elections"));
+        assertNull(matcher.match("/vote\\5/close"));
+        assertNull(matcher.match("/vote/5/close%"));
+    }
+
+    @Test
+    void otherEscapesAreDecodedBeforeMatching() {
+        assertAdminOnly("/%61dmin/elections");
+        assertAdminOnly("/vote/12/clos%65");
+    }
+
+    @Test
+    void wildcardMustBeAWholeSegment() {
+        assertThrows(IllegalArgumentException.class, () -> matcher(routes("/vote/1*/close", "ADMIN")));
+        assertThrows(IllegalArgumentException.class, () -> matcher(routes("/vote/**/close", "ADMIN")));
+        assertThrows(IllegalArgumentException.class, () -> matcher(routes("/vote/*x", "ADMIN")));
+    }
+
+    private void assertAdminOnly(String path) {
+        RouteSecurityMatcher.Rule rule = matcher.match(path);
+        assertFalse(rule.isOpen(), path);
+        assertTrue(rule.permits("ADMIN"), path);
+        assertTrue(rule.permits(List.of("VOTER", "ADMIN")), path);
+        assertFalse(rule.permits("VOTER"), path);
+    }
+
+    private static RouteSecurityMatcher matcher(Map<String, String> routes) {
+        return new RouteSecurityMatcher(new RouteSecurityProperties("authenticated", routes));
+    }
+
+    private static Map<String, String> routes(String... patternsAndAccess) {
+        Map<String, String> routes = new LinkedHashMap<>();
+        for (int i = 0; i < patternsAndAccess.length; i += 2) {
+            routes.put(patternsAndAccess[i], patternsAndAccess[i + 1]);
+        }
+        return routes;
+    }
+}
@@ -0,0 +1,14 @@
+package com.evoting.result.client;
+
+import feign.Response;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+@FeignClient(name = "VOTE-SERVICE")
+public interface VoteClient {
+
+    // Raw response: the packed ballots are streamed from the body, not decoded
+    @GetMapping("/vote/{electionId}/ballots/ranked")
+    Response getRankedBallots(@PathVariable("electionId") Integer electionId);
+}
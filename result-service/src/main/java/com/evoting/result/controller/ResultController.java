@@ -1,6 +1,8 @@
 package com.evoting.result.controller;
 
+import com.evoting.result.dto.Tally;
 import com.evoting.result.model.Result;
+import com.evoting.result.model.RunoffRound;
 import com.evoting.result.service.ResultService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -27,4 +29,22 @@ public class ResultController {
         service.publishResults(electionId, counts);
         return ResponseEntity.ok().build();
     }
+
+    // Same as publish, with the array-based tally admin-service forwards from vote-service
+    @PostMapping("/{electionId}/publish/compact")
+    public ResponseEntity<?> publishCompact(@PathVariable Integer electionId, @RequestBody Tally tally) {
+        service.publishResults(electionId, tally);
+        return ResponseEntity.ok().build();
+    }
+
+    // Instant-runoff count over the election's ranked ballots; the rounds are kept for GET /rounds
+    @PostMapping("/{electionId}/runoff")
+    public List<RunoffRound> tabulateRunoff(@PathVariable Integer electionId) {
+        return service.tabulateRunoff(electionId);
+    }
+
+    @GetMapping("/{electionId}/rounds")
+    public List<RunoffRound> getRounds(@PathVariable Integer electionId) {
+        return service.getRounds(electionId);
+    }
 }
@@ -19,8 +19,12 @@ import java.time.LocalDateTime;
 @Table(name = "result")
 public class Result {
 
+    // Pooled allocation from a shared table: ids come in blocks, so inserts can be batched,
+    // and blocks are reserved transactionally, so replicas never hand out the same id
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "result_id")
+    @TableGenerator(name = "result_id", table = "id_allocation", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "result", allocationSize = 50)
     private Integer id;
 
     private Integer electionId;
@@ -0,0 +1,48 @@
+package com.evoting.result.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// One instant-runoff round: the counts of the candidates still running, then either the candidate
+// eliminated or, in the last round, the winner
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@EntityListeners(AuditingEntityListener.class)
+@Table(name = "runoff_round", indexes = @Index(name = "idx_runoff_round_election", columnList = "election_id, round_number"))
+public class RunoffRound {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Integer electionId;
+
+    private Integer roundNumber;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "runoff_round_count", joinColumns = @JoinColumn(name = "round_id"))
+    @MapKeyColumn(name = "candidate_id")
+    @Column(name = "vote_count")
+    private Map<Integer, Long> counts;
+
+    // Ballots with no preference left among the running candidates
+    private Long exhaustedBallots;
+
+    private Integer eliminatedCandidateId;
+
+    private Integer winnerCandidateId;
+
+    @CreatedDate
+    private LocalDateTime calculatedAt;
+}
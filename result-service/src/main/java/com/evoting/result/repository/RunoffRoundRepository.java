@@ -0,0 +1,12 @@
+package com.evoting.result.repository;
+
+import com.evoting.result.model.RunoffRound;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface RunoffRoundRepository extends JpaRepository<RunoffRound, Long> {
+    List<RunoffRound> findByElectionIdOrderByRoundNumber(Integer electionId);
+
+    void deleteByElectionId(Integer electionId);
+}
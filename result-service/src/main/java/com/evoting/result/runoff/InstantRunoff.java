@@ -0,0 +1,205 @@
+package com.evoting.result.runoff;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// Instant-runoff count. Every ballot sits in the bucket of its current top choice, so a round's
+// counts are the bucket sizes. Eliminating a candidate only re-routes the ballots in its bucket:
+// each one moves to its next preference still running, or is exhausted. Routing is split into
+// chunks on a fork-join pool; a ballot is in exactly one chunk, so chunks never share state.
+@Component
+public class InstantRunoff {
+
+    private static final int MIN_CHUNK = 4096;
+
+    private final ForkJoinPool pool;
+
+    public InstantRunoff(@Value("${result.runoff.parallelism:0}") int parallelism) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdown();
+    }
+
+    // counts and exhausted are as of the count, before this round's elimination is applied;
+    // eliminated and winner are candidate indices or -1
+    public record Round(long[] counts, long exhausted, int eliminated, int winner) {
+    }
+
+    public List<Round> tabulate(RankedBallots ballots) {
+        return new Count(ballots).run();
+    }
+
+    private final class Count {
+
+        private final RankedBallots ballots;
+        private final int candidates;
+        private final int[] position;
+        private final boolean[] eliminated;
+        private final Bucket[] buckets;
+        private long exhausted;
+
+        Count(RankedBallots ballots) {
+            this.ballots = ballots;
+            this.candidates = ballots.candidates();
+            this.position = new int[ballots.size()];
+            this.eliminated = new boolean[candidates];
+            this.buckets = new Bucket[candidates];
+            for (int c = 0; c < candidates; c++) {
+                buckets[c] = new Bucket();
+            }
+            Arrays.fill(position, -1);
+        }
+
+        List<Round> run() {
+            List<Round> rounds = new ArrayList<>();
+            if (ballots.size() == 0 || candidates == 0) {
+                return rounds;
+            }
+            route(null, 0, ballots.size());
+            int running = candidates;
+            while (true) {
+                long[] counts = new long[candidates];
+                int leader = -1;
+                for (int c = 0; c < candidates; c++) {
+                    if (!eliminated[c]) {
+                        counts[c] = buckets[c].size;
+                        if (leader < 0 || counts[c] > counts[leader]) {
+                            leader = c;
+                        }
+                    }
+                }
+                long active = ballots.size() - exhausted;
+                if (counts[leader] * 2 > active || running == 1) {
+                    rounds.add(new Round(counts, exhausted, -1, leader));
+                    return rounds;
+                }
+                int loser = loser(counts, rounds);
+                rounds.add(new Round(counts, exhausted, loser, -1));
+                eliminated[loser] = true;
+                running--;
+                Bucket moved = buckets[loser];
+                buckets[loser] = new Bucket();
+                for (int[] segment : moved.segments) {
+                    route(segment, 0, segment.length);
+                }
+            }
+        }
+
+        // Fewest votes; ties go to whoever had fewer in the latest earlier round that separates them,
+        // then to the lower candidate id
+        private int loser(long[] counts, List<Round> previous) {
+            int loser = -1;
+            for (int c = 0; c < candidates; c++) {
+                if (!eliminated[c] && (loser < 0 || counts[c] < counts[loser]
+                        || (counts[c] == counts[loser] && trailsEarlier(c, loser, previous)))) {
+                    loser = c;
+                }
+            }
+            return loser;
+        }
+
+        private boolean trailsEarlier(int c, int other, List<Round> previous) {
+            for (int r = previous.size() - 1; r >= 0; r--) {
+                long[] counts = previous.get(r).counts();
+                if (counts[c] != counts[other]) {
+                    return counts[c] < counts[other];
+                }
+            }
+            return ballots.candidateIdAt(c) < ballots.candidateIdAt(other);
+        }
+
+        // Routes ballots ids[from, to), or ballots from..to themselves when ids is null
+        private void route(int[] ids, int from, int to) {
+            int chunk = Math.max(MIN_CHUNK, (to - from) / (pool.getParallelism() * 4) + 1);
+            List<Callable<Routed>> chunks = new ArrayList<>();
+            for (int lo = from; lo < to; lo += chunk) {
+                int start = lo;
+                int end = Math.min(to, lo + chunk);
+                chunks.add(() -> routeChunk(ids, start, end));
+            }
+            for (Future<Routed> future : pool.invokeAll(chunks)) {
+                Routed routed;
+                try {
+                    routed = future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted during instant-runoff count", e);
+                } catch (ExecutionException e) {
+                    throw new RuntimeException("Instant-runoff count failed", e.getCause());
+                }
+                exhausted += routed.exhausted;
+                for (int c = 0; c < candidates; c++) {
+                    if (routed.lists[c] != null) {
+                        buckets[c].add(routed.lists[c].toArray());
+                    }
+                }
+            }
+        }
+
+        private Routed routeChunk(int[] ids, int from, int to) {
+            IntList[] lists = new IntList[candidates];
+            long chunkExhausted = 0;
+            for (int i = from; i < to; i++) {
+                int ballot = ids == null ? i : ids[i];
+                int length = ballots.length(ballot);
+                int rank = position[ballot] + 1;
+                while (rank < length && eliminated[ballots.preference(ballot, rank)]) {
+                    rank++;
+                }
+                position[ballot] = rank;
+                if (rank == length) {
+                    chunkExhausted++;
+                    continue;
+                }
+                int next = ballots.preference(ballot, rank);
+                if (lists[next] == null) {
+                    lists[next] = new IntList();
+                }
+                lists[next].add(ballot);
+            }
+            return new Routed(lists, chunkExhausted);
+        }
+    }
+
+    private record Routed(IntList[] lists, long exhausted) {
+    }
+
+    // Ballots of one candidate, kept as the segments the routing chunks produced so nothing is copied
+    private static final class Bucket {
+        private final List<int[]> segments = new ArrayList<>();
+        private long size;
+
+        void add(int[] segment) {
+            segments.add(segment);
+            size += segment.length;
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[64];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
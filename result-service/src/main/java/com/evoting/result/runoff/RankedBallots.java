@@ -0,0 +1,76 @@
+package com.evoting.result.runoff;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+// Ranked ballots as vote-service exports them: each preference is one byte, the index of a
+// candidate in the sorted candidate ids. All ballots share one byte array; ballot i spans
+// data[offsets[i], offsets[i + 1]).
+public final class RankedBallots {
+
+    private final int[] candidateIds;
+    private final byte[] data;
+    private final int[] offsets;
+    private final int size;
+
+    private RankedBallots(int[] candidateIds, byte[] data, int[] offsets, int size) {
+        this.candidateIds = candidateIds;
+        this.data = data;
+        this.offsets = offsets;
+        this.size = size;
+    }
+
+    public static RankedBallots read(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(input, 1 << 16));
+        int[] candidateIds = new int[in.readInt()];
+        for (int i = 0; i < candidateIds.length; i++) {
+            candidateIds[i] = in.readInt();
+        }
+        byte[] data = new byte[1 << 16];
+        int[] offsets = new int[1 << 12];
+        int size = 0;
+        int length = 0;
+        int ballotLength;
+        while ((ballotLength = in.read()) >= 0) {
+            if (length + ballotLength > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, length + ballotLength));
+            }
+            if (size + 1 == offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            try {
+                in.readFully(data, length, ballotLength);
+            } catch (EOFException e) {
+                throw new IOException("Truncated ranked ballot stream after " + size + " ballots", e);
+            }
+            length += ballotLength;
+            offsets[++size] = length;
+        }
+        return new RankedBallots(candidateIds, data, offsets, size);
+    }
+
+    public int candidates() {
+        return candidateIds.length;
+    }
+
+    public int candidateIdAt(int index) {
+        return candidateIds[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int length(int ballot) {
+        return offsets[ballot + 1] - offsets[ballot];
+    }
+
+    // Candidate index of the ballot's preference at rank (0 = first choice)
+    public int preference(int ballot, int rank) {
+        return data[offsets[ballot] + rank] & 0xFF;
+    }
+}
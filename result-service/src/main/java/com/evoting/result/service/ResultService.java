@@ -1,34 +1,114 @@
 package com.evoting.result.service;
 
+import com.evoting.result.client.VoteClient;
+import com.evoting.result.dto.Tally;
 import com.evoting.result.model.Result;
+import com.evoting.result.model.RunoffRound;
 import com.evoting.result.repository.ResultRepository;
+import com.evoting.result.repository.RunoffRoundRepository;
+import com.evoting.result.runoff.InstantRunoff;
+import com.evoting.result.runoff.RankedBallots;
+import feign.Response;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
+@Slf4j
 @RequiredArgsConstructor
 public class ResultService {
 
     private final ResultRepository repository;
+    private final RunoffRoundRepository runoffRepository;
+    private final VoteClient voteClient;
+    private final InstantRunoff instantRunoff;
+    private final TransactionTemplate transactionTemplate;
 
     public List<Result> getResults(Integer electionId) {
         return repository.findByElectionId(electionId);
     }
 
     public void publishResults(Integer electionId, java.util.Map<Integer, Long> counts) {
+        publishResults(electionId, Tally.fromMap(counts));
+    }
+
+    public void publishResults(Integer electionId, Tally tally) {
         // Clear previous results if any (re-calculation)
         // In real system, might want to keep history
         // repository.deleteByElectionId(electionId); // Needs @Transactional
 
-        counts.forEach((candidateId, count) -> {
-            Result result = Result.builder()
+        List<Result> results = new java.util.ArrayList<>(tally.size());
+        for (int i = 0; i < tally.size(); i++) {
+            results.add(Result.builder()
+                    .electionId(electionId)
+                    .candidateId(tally.candidateIdAt(i))
+                    .voteCount(tally.countAt(i))
+                    .build());
+        }
+        // Single JDBC batch (hibernate.jdbc.batch_size)
+        repository.saveAll(results);
+    }
+
+    public List<RunoffRound> getRounds(Integer electionId) {
+        return runoffRepository.findByElectionIdOrderByRoundNumber(electionId);
+    }
+
+    // Counts the election's ranked ballots and replaces its previous rounds, if any
+    public List<RunoffRound> tabulateRunoff(Integer electionId) {
+        long start = System.nanoTime();
+        RankedBallots ballots = fetchRankedBallots(electionId);
+        List<InstantRunoff.Round> rounds = instantRunoff.tabulate(ballots);
+
+        List<RunoffRound> entities = new java.util.ArrayList<>(rounds.size());
+        boolean[] out = new boolean[ballots.candidates()];
+        for (int r = 0; r < rounds.size(); r++) {
+            InstantRunoff.Round round = rounds.get(r);
+            Map<Integer, Long> counts = new LinkedHashMap<>();
+            for (int c = 0; c < ballots.candidates(); c++) {
+                if (!out[c]) {
+                    counts.put(ballots.candidateIdAt(c), round.counts()[c]);
+                }
+            }
+            if (round.eliminated() >= 0) {
+                out[round.eliminated()] = true;
+            }
+            entities.add(RunoffRound.builder()
                     .electionId(electionId)
-                    .candidateId(candidateId)
-                    .voteCount(count)
-                    .build();
-            repository.save(result);
+                    .roundNumber(r + 1)
+                    .counts(counts)
+                    .exhaustedBallots(round.exhausted())
+                    .eliminatedCandidateId(round.eliminated() >= 0 ? ballots.candidateIdAt(round.eliminated()) : null)
+                    .winnerCandidateId(round.winner() >= 0 ? ballots.candidateIdAt(round.winner()) : null)
+                    .build());
+        }
+        List<RunoffRound> saved = transactionTemplate.execute(status -> {
+            runoffRepository.deleteByElectionId(electionId);
+            return runoffRepository.saveAll(entities);
         });
+        log.info("Instant-runoff count of election {}: {} ballots, {} rounds in {} ms", electionId, ballots.size(),
+                rounds.size(), (System.nanoTime() - start) / 1_000_000);
+        return saved;
+    }
+
+    private RankedBallots fetchRankedBallots(Integer electionId) {
+        try (Response response = voteClient.getRankedBallots(electionId)) {
+            if (response.status() != 200 || response.body() == null) {
+                throw new RuntimeException("Ranked ballots of election " + electionId + " unavailable (HTTP "
+                        + response.status() + ")");
+            }
+            try (InputStream body = response.body().asInputStream()) {
+                return RankedBallots.read(body);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read ranked ballots of election " + electionId, e);
+        }
     }
 }
@@ -0,0 +1,120 @@
+package com.evoting.result.runoff;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InstantRunoffTest {
+
+    private final InstantRunoff runoff = new InstantRunoff(2);
+
+    @AfterEach
+    void tearDown() {
+        runoff.stop();
+    }
+
+    @Test
+    void eliminatesTheWeakestUntilAMajority() throws IOException {
+        List<int[]> ballots = new ArrayList<>();
+        add(ballots, 5, 0);
+        add(ballots, 4, 1, 2);
+        add(ballots, 3, 2);
+        add(ballots, 2, 3, 2);
+
+        List<InstantRunoff.Round> rounds = tabulate(new int[] { 10, 20, 30, 40 }, ballots);
+
+        assertEquals(3, rounds.size());
+        assertArrayEquals(new long[] { 5, 4, 3, 2 }, rounds.get(0).counts());
+        assertEquals(3, rounds.get(0).eliminated());
+        assertArrayEquals(new long[] { 5, 4, 5, 0 }, rounds.get(1).counts());
+        assertEquals(1, rounds.get(1).eliminated());
+        assertArrayEquals(new long[] { 5, 0, 9, 0 }, rounds.get(2).counts());
+        assertEquals(2, rounds.get(2).winner());
+        assertEquals(-1, rounds.get(2).eliminated());
+    }
+
+    @Test
+    void exhaustedBallotsLeaveTheMajorityBase() throws IOException {
+        List<int[]> ballots = new ArrayList<>();
+        add(ballots, 3, 0);
+        add(ballots, 2, 1);
+        add(ballots, 1, 2, 1);
+
+        List<InstantRunoff.Round> rounds = tabulate(new int[] { 1, 2, 3 }, ballots);
+
+        assertEquals(2, rounds.get(0).eliminated());
+        // 3 to 3: B trailed A in the first round, so B goes
+        assertArrayEquals(new long[] { 3, 3, 0 }, rounds.get(1).counts());
+        assertEquals(1, rounds.get(1).eliminated());
+        InstantRunoff.Round last = rounds.get(2);
+        assertEquals(3, last.exhausted());
+        // 3 of 6 ballots is a majority of the 3 still active
+        assertEquals(0, last.winner());
+    }
+
+    @Test
+    void tieWithoutEarlierRoundsEliminatesTheLowerCandidateId() throws IOException {
+        List<int[]> ballots = new ArrayList<>();
+        add(ballots, 1, 0);
+        add(ballots, 1, 1);
+
+        // Index 0 is candidate 7, index 1 candidate 5: ids decide, not indices
+        List<InstantRunoff.Round> rounds = tabulate(new int[] { 7, 5 }, ballots);
+
+        assertEquals(1, rounds.get(0).eliminated());
+        assertEquals(0, rounds.get(1).winner());
+        assertEquals(1, rounds.get(1).exhausted());
+    }
+
+    @Test
+    void countsCandidatesAbove127() throws IOException {
+        List<int[]> ballots = new ArrayList<>();
+        add(ballots, 3, 150);
+        add(ballots, 2, 254, 150);
+        add(ballots, 2, 200, 150);
+        add(ballots, 1, 0);
+
+        List<InstantRunoff.Round> rounds = tabulate(RankedBallotsTest.candidateIds(255), ballots);
+
+        long[] first = rounds.get(0).counts();
+        assertEquals(3, first[150]);
+        assertEquals(2, first[200]);
+        assertEquals(2, first[254]);
+        InstantRunoff.Round last = rounds.get(rounds.size() - 1);
+        assertEquals(150, last.winner());
+        assertEquals(5, last.counts()[150]);
+        assertTrue(last.counts()[150] * 2 > 8 - last.exhausted());
+    }
+
+    @Test
+    void manyBallotsAreRoutedInParallelChunks() throws IOException {
+        List<int[]> ballots = new ArrayList<>();
+        add(ballots, 40_000, 0, 2);
+        add(ballots, 35_000, 1, 2);
+        add(ballots, 30_000, 2, 1);
+
+        List<InstantRunoff.Round> rounds = tabulate(new int[] { 1, 2, 3 }, ballots);
+
+        assertEquals(2, rounds.get(0).eliminated());
+        assertArrayEquals(new long[] { 40_000, 65_000, 0 }, rounds.get(1).counts());
+        assertEquals(1, rounds.get(1).winner());
+    }
+
+    private List<InstantRunoff.Round> tabulate(int[] candidateIds, List<int[]> ballots) throws IOException {
+        return runoff.tabulate(RankedBallots.read(RankedBallotsTest.stream(candidateIds,
+                ballots.toArray(new int[0][]))));
+    }
+
+    private static void add(List<int[]> ballots, int copies, int... preferences) {
+        for (int i = 0; i < copies; i++) {
+            ballots.add(preferences);
+        }
+    }
+}
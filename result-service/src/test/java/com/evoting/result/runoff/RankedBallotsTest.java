@@ -0,0 +1,93 @@
+package com.evoting.result.runoff;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RankedBallotsTest {
+
+    @Test
+    void readsHeaderAndBallots() throws IOException {
+        RankedBallots ballots = RankedBallots.read(stream(new int[] { 4, 9, 12 }, new int[] { 2, 0 },
+                new int[] {}, new int[] { 1 }));
+
+        assertEquals(3, ballots.candidates());
+        assertEquals(12, ballots.candidateIdAt(2));
+        assertEquals(3, ballots.size());
+        assertEquals(2, ballots.length(0));
+        assertEquals(2, ballots.preference(0, 0));
+        assertEquals(0, ballots.preference(0, 1));
+        assertEquals(0, ballots.length(1));
+        assertEquals(1, ballots.preference(2, 0));
+    }
+
+    @Test
+    void preferencesAbove127AreUnsigned() throws IOException {
+        int[] candidateIds = candidateIds(255);
+        int[] ballot = new int[255];
+        for (int i = 0; i < ballot.length; i++) {
+            ballot[i] = 254 - i;
+        }
+        RankedBallots ballots = RankedBallots.read(stream(candidateIds, ballot));
+
+        // 255 preferences: the length byte itself is above 127
+        assertEquals(255, ballots.length(0));
+        assertEquals(254, ballots.preference(0, 0));
+        assertEquals(128, ballots.preference(0, 126));
+        assertEquals(candidateIds[254], ballots.candidateIdAt(ballots.preference(0, 0)));
+    }
+
+    @Test
+    void growsPastItsInitialBuffers() throws IOException {
+        int[][] many = new int[10_000][];
+        for (int i = 0; i < many.length; i++) {
+            many[i] = new int[] { i % 200, (i + 1) % 200, (i + 2) % 200, (i + 3) % 200, (i + 4) % 200,
+                    (i + 5) % 200, (i + 6) % 200, (i + 7) % 200 };
+        }
+        RankedBallots ballots = RankedBallots.read(stream(candidateIds(200), many));
+
+        assertEquals(10_000, ballots.size());
+        assertEquals(9_999 % 200, ballots.preference(9_999, 0));
+        assertEquals((9_999 + 7) % 200, ballots.preference(9_999, 7));
+    }
+
+    @Test
+    void truncatedBallotIsAnError() throws IOException {
+        byte[] full = stream(new int[] { 1, 2 }, new int[] { 0, 1 }).readAllBytes();
+        byte[] truncated = Arrays.copyOf(full, full.length - 1);
+
+        assertThrows(IOException.class, () -> RankedBallots.read(new ByteArrayInputStream(truncated)));
+    }
+
+    static int[] candidateIds(int count) {
+        int[] candidateIds = new int[count];
+        for (int i = 0; i < count; i++) {
+            candidateIds[i] = 1000 + 3 * i;
+        }
+        return candidateIds;
+    }
+
+    // Same layout as vote-service's RankedBallotService.export
+    static ByteArrayInputStream stream(int[] candidateIds, int[]... ballots) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(candidateIds.length);
+        for (int candidateId : candidateIds) {
+            out.writeInt(candidateId);
+        }
+        for (int[] ballot : ballots) {
+            out.writeByte(ballot.length);
+            for (int preference : ballot) {
+                out.writeByte(preference);
+            }
+        }
+        return new ByteArrayInputStream(bytes.toByteArray());
+    }
+}
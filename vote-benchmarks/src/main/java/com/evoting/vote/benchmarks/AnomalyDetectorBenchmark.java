@@ -0,0 +1,58 @@
+package com.evoting.vote.benchmarks;
+
+import com.evoting.vote.anomaly.VoteAnomalyDetector;
+import com.evoting.vote.model.Vote;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// What the anomaly detector adds to each cast: three sliding-window counter updates, with 32
+// threads contending on one election and its candidates
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AnomalyDetectorBenchmark {
+
+    private static final int CANDIDATES = 20;
+    private static final int CLIENTS = 100_000;
+
+    private VoteAnomalyDetector detector;
+    private Vote[] votes;
+    private String[] clients;
+
+    @Setup
+    public void setUp() {
+        detector = new VoteAnomalyDetector(new SimpleMeterRegistry(), true, 10, 1, 200_000, 20, 200, 5,
+                1000, 5, 600, 1000, 1000);
+        votes = new Vote[CANDIDATES];
+        for (int i = 0; i < CANDIDATES; i++) {
+            votes[i] = Vote.builder().electionId(VoteDatabase.ELECTION_ID).candidateId(i + 1).build();
+        }
+        clients = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clients[i] = "10." + (i >> 16) + "." + ((i >> 8) & 0xFF) + "." + (i & 0xFF);
+        }
+    }
+
+    @Benchmark
+    @Threads(32)
+    public void record() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        detector.record(votes[random.nextInt(CANDIDATES)], clients[random.nextInt(CLIENTS)]);
+    }
+}
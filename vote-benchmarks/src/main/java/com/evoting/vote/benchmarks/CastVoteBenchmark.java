@@ -0,0 +1,97 @@
+package com.evoting.vote.benchmarks;
+
+import com.evoting.vote.model.Vote;
+import com.evoting.vote.service.VoterBitmapIndex;
+import com.evoting.vote.store.JdbcVoteStore;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Write path of VoteService.castVote: bitmap claim followed by a group-committed append,
+// measured with many concurrent voters against a table that already holds `preloaded` votes.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx8g" })
+public class CastVoteBenchmark {
+
+    private static final int CANDIDATES = 20;
+    private static final int IMPORT_BATCH = 1_000;
+
+    @Param({ "10000", "1000000", "10000000" })
+    public int preloaded;
+
+    private JdbcDataSource dataSource;
+    private JdbcVoteStore store;
+    private VoterBitmapIndex bitmapIndex;
+    private AtomicInteger nextVoter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = VoteDatabase.create();
+        VoteDatabase.load(new JdbcTemplate(dataSource), preloaded, CANDIDATES);
+        store = VoteStores.jdbc(dataSource);
+        bitmapIndex = new VoterBitmapIndex();
+        for (int voter = 1; voter <= preloaded; voter++) {
+            bitmapIndex.markVoted(VoteDatabase.ELECTION_ID, voter);
+        }
+        nextVoter = new AtomicInteger(preloaded);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        store.stop();
+        VoteDatabase.drop(dataSource);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public Vote castVote() {
+        int voter = nextVoter.incrementAndGet();
+        if (!bitmapIndex.claim(VoteDatabase.ELECTION_ID, voter)) {
+            throw new IllegalStateException("voter " + voter + " claimed twice");
+        }
+        return store.append(Vote.builder()
+                .electionId(VoteDatabase.ELECTION_ID)
+                .voterId(voter)
+                .candidateId(ThreadLocalRandom.current().nextInt(CANDIDATES) + 1)
+                .build());
+    }
+
+    // Bulk import path: one appendAll per IMPORT_BATCH ballots, reported per batch
+    @Benchmark
+    @Threads(1)
+    public boolean[] importBatch() {
+        List<Vote> votes = new ArrayList<>(IMPORT_BATCH);
+        int first = nextVoter.getAndAdd(IMPORT_BATCH) + 1;
+        for (int voter = first; voter < first + IMPORT_BATCH; voter++) {
+            votes.add(Vote.builder()
+                    .electionId(VoteDatabase.ELECTION_ID)
+                    .voterId(voter)
+                    .candidateId(ThreadLocalRandom.current().nextInt(CANDIDATES) + 1)
+                    .build());
+        }
+        return store.appendAll(votes);
+    }
+}
@@ -0,0 +1,115 @@
+package com.evoting.vote.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Closed-loop load against a running vote-service: `concurrency` virtual voters each POST /vote
+// back to back with a fresh X-User-Id until `requests` casts are done, then one JSON line with
+// throughput and latency percentiles is printed. Run it once against the servlet runtime and once
+// against the reactive profile with the same arguments to compare them side by side:
+//
+//   java -cp target/benchmarks.jar com.evoting.vote.benchmarks.CastVoteLoad \
+//       --url http://localhost:8087/vote --label servlet --concurrency 4000 --requests 400000
+public class CastVoteLoad {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        URI uri = URI.create(options.getOrDefault("url", "http://localhost:8087/vote"));
+        String label = options.getOrDefault("label", "run");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "1000"));
+        int requests = Integer.parseInt(options.getOrDefault("requests", "100000"));
+        int electionId = Integer.parseInt(options.getOrDefault("election", "1"));
+        int candidates = Integer.parseInt(options.getOrDefault("candidates", "20"));
+        int firstVoter = Integer.parseInt(options.getOrDefault("first-voter", "1000000"));
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        AtomicInteger issued = new AtomicInteger();
+        AtomicLong ok = new AtomicLong();
+        AtomicLong conflicts = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        long[] latencies = new long[requests];
+        AtomicInteger recorded = new AtomicInteger();
+
+        long start = System.nanoTime();
+        CompletableFuture<?>[] voters = new CompletableFuture<?>[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            voters[i] = loop(client, uri, electionId, candidates, firstVoter, requests, issued,
+                    ok, conflicts, errors, latencies, recorded);
+        }
+        CompletableFuture.allOf(voters).join();
+        long elapsed = System.nanoTime() - start;
+
+        int n = recorded.get();
+        long[] sorted = Arrays.copyOf(latencies, n);
+        Arrays.sort(sorted);
+        System.out.printf(Locale.ROOT,
+                "{\"label\":\"%s\",\"concurrency\":%d,\"requests\":%d,\"ok\":%d,\"conflicts\":%d,\"errors\":%d,"
+                        + "\"seconds\":%.3f,\"throughput\":%.1f,\"p50Ms\":%.2f,\"p90Ms\":%.2f,\"p99Ms\":%.2f,\"maxMs\":%.2f}%n",
+                label, concurrency, n, ok.get(), conflicts.get(), errors.get(), elapsed / 1e9, n / (elapsed / 1e9),
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                n == 0 ? 0.0 : sorted[n - 1] / 1e6);
+    }
+
+    private static CompletableFuture<Void> loop(HttpClient client, URI uri, int electionId, int candidates,
+            int firstVoter, int requests, AtomicInteger issued, AtomicLong ok, AtomicLong conflicts,
+            AtomicLong errors, long[] latencies, AtomicInteger recorded) {
+        int sequence = issued.getAndIncrement();
+        if (sequence >= requests) {
+            return CompletableFuture.completedFuture(null);
+        }
+        int candidateId = ThreadLocalRandom.current().nextInt(candidates) + 1;
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .header("X-User-Id", String.valueOf(firstVoter + sequence))
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"electionId\":" + electionId + ",\"candidateId\":" + candidateId + "}"))
+                .build();
+        long sent = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, failure) -> {
+                    latencies[recorded.getAndIncrement()] = System.nanoTime() - sent;
+                    if (failure != null) {
+                        errors.incrementAndGet();
+                    } else if (response.statusCode() == 200) {
+                        ok.incrementAndGet();
+                    } else if (response.statusCode() == 409) {
+                        conflicts.incrementAndGet();
+                    } else {
+                        errors.incrementAndGet();
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> loop(client, uri, electionId, candidates, firstVoter, requests, issued,
+                        ok, conflicts, errors, latencies, recorded));
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+}
@@ -0,0 +1,83 @@
+package com.evoting.vote.benchmarks;
+
+import com.evoting.vote.crypto.ExponentialElGamal;
+import com.evoting.vote.crypto.HomomorphicTally;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigInteger;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// Encrypted tally time against core count: fork-join product of the ballots plus decryption of
+// the sums, with the ballots held in memory so only the arithmetic is measured
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx8g" })
+public class HomomorphicTallyBenchmark {
+
+    // Encrypting a million ballots would dominate setup, so they cycle through a pool of distinct
+    // ciphertexts; the per-ballot multiplications are the same either way
+    private static final int DISTINCT_BALLOTS = 4096;
+
+    @Param({ "1000000" })
+    public int ballots;
+
+    @Param({ "2", "20" })
+    public int candidates;
+
+    @Param({ "1", "2", "4", "8", "16", "32" })
+    public int parallelism;
+
+    private BigInteger secretKey;
+    private byte[][] store;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        secretKey = ExponentialElGamal.newSecretKey();
+        BigInteger publicKey = ExponentialElGamal.publicKey(secretKey);
+        SplittableRandom random = new SplittableRandom(42);
+        byte[][] distinct = new byte[DISTINCT_BALLOTS][];
+        for (int i = 0; i < distinct.length; i++) {
+            distinct[i] = ExponentialElGamal.encryptChoice(publicKey, candidates, random.nextInt(candidates));
+        }
+        store = new byte[ballots][];
+        for (int i = 0; i < ballots; i++) {
+            store[i] = distinct[i % DISTINCT_BALLOTS];
+        }
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    // Same partitioning as BallotEncryptionService: four partitions per worker
+    @Benchmark
+    public long[] tally() {
+        long grain = Math.max(1, ballots / (parallelism * 4L));
+        BigInteger[] sum = HomomorphicTally.sum(pool, (from, to, sink) -> {
+            for (long i = from; i < to; i++) {
+                sink.accept(store[(int) i]);
+            }
+        }, candidates, 0, ballots, grain);
+        return ExponentialElGamal.decrypt(secretKey, sum, ballots);
+    }
+}
@@ -0,0 +1,67 @@
+package com.evoting.vote.benchmarks;
+
+import com.evoting.vote.dto.TallyReport;
+import com.evoting.vote.store.JdbcVoteStore;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+// VoteService.tallyVotes over the jdbc store (vote table) and the ledger store (narrow ballot_box):
+// one GROUP BY per election
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx8g" })
+public class TallyBenchmark {
+
+    @Param({ "10000", "1000000", "10000000" })
+    public int votes;
+
+    @Param({ "2", "20", "200" })
+    public int candidates;
+
+    @Param({ "jdbc", "ledger" })
+    public String storage;
+
+    private JdbcDataSource dataSource;
+    private JdbcVoteStore store;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = VoteDatabase.create();
+        if ("ledger".equals(storage)) {
+            VoteDatabase.loadLedger(new JdbcTemplate(dataSource), votes, candidates);
+            store = VoteStores.ledger(dataSource);
+        } else {
+            VoteDatabase.load(new JdbcTemplate(dataSource), votes, candidates);
+            store = VoteStores.jdbc(dataSource);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        store.stop();
+        VoteDatabase.drop(dataSource);
+    }
+
+    @Benchmark
+    public TallyReport tallyVotes() {
+        return store.tally(VoteDatabase.ELECTION_ID);
+    }
+}
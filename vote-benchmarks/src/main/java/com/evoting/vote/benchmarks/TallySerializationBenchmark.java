@@ -0,0 +1,79 @@
+package com.evoting.vote.benchmarks;
+
+import com.evoting.vote.dto.Tally;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Jackson round trips of the Map<Integer, Long> tally returned by GET /vote/{id}/tally and of the
+// array-based Tally returned by GET /vote/{id}/tally/compact
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TallySerializationBenchmark {
+
+    private static final TypeReference<Map<Integer, Long>> TALLY_TYPE = new TypeReference<>() {
+    };
+
+    @Param({ "2", "20", "200" })
+    public int candidates;
+
+    @Param({ "10000", "10000000" })
+    public int votes;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private Map<Integer, Long> tally;
+    private byte[] json;
+    private Tally compact;
+    private byte[] compactJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        SplittableRandom random = new SplittableRandom(42);
+        tally = new HashMap<>();
+        for (int i = 0; i < votes; i++) {
+            tally.merge(random.nextInt(candidates) + 1, 1L, Long::sum);
+        }
+        json = mapper.writeValueAsBytes(tally);
+        compact = Tally.fromMap(tally);
+        compactJson = mapper.writeValueAsBytes(compact);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return mapper.writeValueAsBytes(tally);
+    }
+
+    @Benchmark
+    public Map<Integer, Long> deserialize() throws Exception {
+        return mapper.readValue(json, TALLY_TYPE);
+    }
+
+    @Benchmark
+    public byte[] serializeCompact() throws Exception {
+        return mapper.writeValueAsBytes(compact);
+    }
+
+    @Benchmark
+    public Tally deserializeCompact() throws Exception {
+        return mapper.readValue(compactJson, Tally.class);
+    }
+}
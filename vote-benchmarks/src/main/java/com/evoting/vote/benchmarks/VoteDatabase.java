@@ -0,0 +1,91 @@
+package com.evoting.vote.benchmarks;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+// In-memory H2 stand-in for vote_db with the same tables, unique keys and indexes Hibernate
+// creates from the Vote, Participation, Ballot and ElectionFence entities. Each state gets its own
+// database so trials do not share rows.
+final class VoteDatabase {
+
+    static final int ELECTION_ID = 1;
+
+    private static final int LOAD_BATCH = 10_000;
+
+    private VoteDatabase() {
+    }
+
+    static JdbcDataSource create() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table vote (id bigint primary key, election_id int, voter_id int, "
+                + "candidate_id int, timestamp timestamp(6), ballot blob, ranking varbinary(255))");
+        jdbc.execute("alter table vote add constraint uk_vote_election_voter unique (election_id, voter_id)");
+        jdbc.execute("create index idx_vote_election_candidate on vote (election_id, candidate_id)");
+        jdbc.execute("create index idx_vote_voter on vote (voter_id, id)");
+        jdbc.execute("create table participation (id bigint primary key, election_id int, voter_id int, "
+                + "timestamp timestamp(6))");
+        jdbc.execute("alter table participation add constraint uk_participation_election_voter "
+                + "unique (election_id, voter_id)");
+        jdbc.execute("create index idx_participation_voter on participation (voter_id, id)");
+        jdbc.execute("create table ballot_box (id bigint auto_increment primary key, election_id int, "
+                + "candidate_id int, batch_id bigint, ranking varbinary(255))");
+        jdbc.execute("create index idx_ballot_box_election_candidate on ballot_box (election_id, candidate_id, batch_id)");
+        jdbc.execute("create index idx_ballot_box_election_batch on ballot_box (election_id, batch_id)");
+        jdbc.execute("create table ballot_pool (id bigint primary key, election_id int, sealed varbinary(512))");
+        jdbc.execute("create index idx_ballot_pool_election on ballot_pool (election_id)");
+        jdbc.execute("create table election_fence (election_id int primary key, watermark bigint, "
+                + "merkle_tree_size bigint, merkle_root varchar(255), closed_at timestamp(6))");
+        return dataSource;
+    }
+
+    // Voters 1..votes of ELECTION_ID, candidates drawn uniformly from 1..candidates with a fixed seed
+    static void load(JdbcTemplate jdbc, int votes, int candidates) {
+        load(jdbc, votes, candidates, false);
+    }
+
+    // Same votes written as the ledger store does: participation rows plus ballot_box rows
+    static void loadLedger(JdbcTemplate jdbc, int votes, int candidates) {
+        load(jdbc, votes, candidates, true);
+    }
+
+    private static void load(JdbcTemplate jdbc, int votes, int candidates, boolean ledger) {
+        SplittableRandom random = new SplittableRandom(42);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> batch = new ArrayList<>(LOAD_BATCH);
+        for (int voter = 1; voter <= votes; voter++) {
+            batch.add(new Object[] { (long) voter, ELECTION_ID, voter, random.nextInt(candidates) + 1, now });
+            if (batch.size() == LOAD_BATCH) {
+                insert(jdbc, batch, ledger);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            insert(jdbc, batch, ledger);
+        }
+    }
+
+    static void drop(JdbcDataSource dataSource) {
+        new JdbcTemplate(dataSource).execute("shutdown");
+    }
+
+    private static void insert(JdbcTemplate jdbc, List<Object[]> batch, boolean ledger) {
+        if (!ledger) {
+            jdbc.batchUpdate("insert into vote (id, election_id, voter_id, candidate_id, timestamp) "
+                    + "values (?, ?, ?, ?, ?)", batch);
+            return;
+        }
+        long batchId = (long) batch.get(batch.size() - 1)[0];
+        jdbc.batchUpdate("insert into participation (id, election_id, voter_id, timestamp) values (?, ?, ?, ?)",
+                batch.stream().map(row -> new Object[] { row[0], row[1], row[2], row[4] }).toList());
+        jdbc.batchUpdate("insert into ballot_box (election_id, candidate_id, batch_id) values (?, ?, ?)",
+                batch.stream().map(row -> new Object[] { row[1], row[3], batchId }).toList());
+    }
+}
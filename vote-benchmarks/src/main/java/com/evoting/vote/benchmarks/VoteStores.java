@@ -0,0 +1,47 @@
+package com.evoting.vote.benchmarks;
+
+import com.evoting.vote.store.JdbcVoteStore;
+import com.evoting.vote.store.LedgerVoteStore;
+import com.evoting.vote.store.VoteIdGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Base64;
+import java.util.List;
+
+// Wires JdbcVoteStore / LedgerVoteStore by hand with the defaults from config-repo/vote-service.yml
+final class VoteStores {
+
+    // Throwaway pool key for the ledger store; benchmark ballots need no secrecy
+    private static final String POOL_KEY = Base64.getEncoder().encodeToString(new byte[32]);
+
+    private VoteStores() {
+    }
+
+    static JdbcVoteStore jdbc(DataSource dataSource) {
+        JdbcVoteStore store = new JdbcVoteStore(
+                new JdbcTemplate(dataSource),
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)),
+                new VoteIdGenerator(0),
+                List.of(),
+                new SimpleMeterRegistry(),
+                256, 5, 10_000, 10_000);
+        store.start();
+        return store;
+    }
+
+    static LedgerVoteStore ledger(DataSource dataSource) {
+        LedgerVoteStore store = new LedgerVoteStore(
+                new JdbcTemplate(dataSource),
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)),
+                new VoteIdGenerator(0),
+                List.of(),
+                new SimpleMeterRegistry(),
+                256, 5, 10_000, 10_000, 100, POOL_KEY);
+        store.start();
+        return store;
+    }
+}
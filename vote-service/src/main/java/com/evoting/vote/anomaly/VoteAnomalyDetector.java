@@ -0,0 +1,250 @@
+package com.evoting.vote.anomaly;
+
+import com.evoting.vote.dto.AnomalyAlert;
+import com.evoting.vote.model.Vote;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Flags scripted voting while it happens. Each cast bumps three sliding-window counters (its client
+// address, its candidate and its election) with one CAS each; everything else, comparing rates with
+// thresholds and with each key's own decaying baseline, runs on the evaluator schedule.
+@Service
+@Slf4j
+public class VoteAnomalyDetector {
+
+    private final boolean enabled;
+    private final long windowMillis;
+    private final int forwardedHops;
+    private final int maxTrackedIps;
+    private final long ipMaxVotes;
+    private final long candidateMinVotes;
+    private final double candidateSpikeFactor;
+    private final long electionMinVotes;
+    private final double electionSpikeFactor;
+    private final double baselineAlpha;
+    private final int maxAlerts;
+    private final Map<AnomalyAlert.Type, Counter> alertCounters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, WindowCounter> ips = new ConcurrentHashMap<>();
+    private final Map<Long, WindowCounter> candidates = new ConcurrentHashMap<>();
+    private final Map<Integer, WindowCounter> elections = new ConcurrentHashMap<>();
+
+    // Newest last, bounded by vote.anomaly.max-alerts
+    private final Deque<AnomalyAlert> alerts = new ArrayDeque<>();
+
+    public VoteAnomalyDetector(MeterRegistry meterRegistry,
+            @Value("${vote.anomaly.enabled:true}") boolean enabled,
+            @Value("${vote.anomaly.window-seconds:10}") long windowSeconds,
+            @Value("${vote.anomaly.forwarded-hops:1}") int forwardedHops,
+            @Value("${vote.anomaly.max-tracked-ips:200000}") int maxTrackedIps,
+            @Value("${vote.anomaly.ip-max-votes:20}") long ipMaxVotes,
+            @Value("${vote.anomaly.candidate-min-votes:200}") long candidateMinVotes,
+            @Value("${vote.anomaly.candidate-spike-factor:5}") double candidateSpikeFactor,
+            @Value("${vote.anomaly.election-min-votes:1000}") long electionMinVotes,
+            @Value("${vote.anomaly.election-spike-factor:5}") double electionSpikeFactor,
+            @Value("${vote.anomaly.baseline-half-life-seconds:600}") long baselineHalfLifeSeconds,
+            @Value("${vote.anomaly.evaluate-interval-ms:1000}") long evaluateIntervalMillis,
+            @Value("${vote.anomaly.max-alerts:1000}") int maxAlerts) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.windowMillis = Math.max(1, windowSeconds) * 1000;
+        this.forwardedHops = Math.max(1, forwardedHops);
+        this.maxTrackedIps = maxTrackedIps;
+        this.ipMaxVotes = ipMaxVotes;
+        this.candidateMinVotes = candidateMinVotes;
+        this.candidateSpikeFactor = candidateSpikeFactor;
+        this.electionMinVotes = electionMinVotes;
+        this.electionSpikeFactor = electionSpikeFactor;
+        // Per evaluation, so the baseline halves its distance to the rate every half-life
+        this.baselineAlpha = 1 - Math.pow(0.5, (double) evaluateIntervalMillis / (Math.max(1, baselineHalfLifeSeconds) * 1000));
+        this.maxAlerts = Math.max(1, maxAlerts);
+        meterRegistry.gaugeMapSize("vote.anomaly.tracked.ips", Tags.empty(), ips);
+    }
+
+    // The gateway appends the address it saw to X-Forwarded-For, so the trusted entry is the one
+    // vote.anomaly.forwarded-hops from the right; entries further left are client supplied
+    public String clientIp(String forwardedFor, String remoteAddress) {
+        if (forwardedFor == null || forwardedFor.isBlank()) {
+            return remoteAddress;
+        }
+        int end = forwardedFor.length();
+        for (int hop = 1; ; hop++) {
+            int comma = forwardedFor.lastIndexOf(',', end - 1);
+            if (hop == forwardedHops || comma < 0) {
+                return forwardedFor.substring(comma + 1, end).trim();
+            }
+            end = comma;
+        }
+    }
+
+    // Cast path: called once the vote is stored
+    public void record(Vote vote, String clientIp) {
+        if (!enabled || vote.getElectionId() == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long window = now / windowMillis;
+        counter(elections, vote.getElectionId()).increment(window);
+        if (vote.getCandidateId() != null) {
+            counter(candidates, ((long) vote.getElectionId() << 32) | (vote.getCandidateId() & 0xFFFFFFFFL))
+                    .increment(window);
+        }
+        if (clientIp != null) {
+            WindowCounter ip = ips.get(clientIp);
+            if (ip == null && ips.size() < maxTrackedIps) {
+                ip = ips.computeIfAbsent(clientIp, key -> new WindowCounter());
+            }
+            if (ip != null) {
+                ip.lastElectionId = vote.getElectionId();
+                ip.increment(window);
+            }
+        }
+    }
+
+    public List<AnomalyAlert> getAlerts(Integer electionId) {
+        synchronized (alerts) {
+            List<AnomalyAlert> result = new ArrayList<>(alerts.size());
+            for (Iterator<AnomalyAlert> it = alerts.descendingIterator(); it.hasNext(); ) {
+                AnomalyAlert alert = it.next();
+                if (electionId == null || electionId.equals(alert.getElectionId())) {
+                    result.add(alert);
+                }
+            }
+            return result;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${vote.anomaly.evaluate-interval-ms:1000}",
+            initialDelayString = "${vote.anomaly.evaluate-interval-ms:1000}")
+    public void evaluate() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        ips.entrySet().removeIf(entry -> {
+            WindowCounter counter = entry.getValue();
+            long votes = counter.estimate(now, windowMillis);
+            if (check(counter, votes, ipMaxVotes)) {
+                raise(AnomalyAlert.builder()
+                        .type(AnomalyAlert.Type.IP_BURST)
+                        .electionId(counter.lastElectionId)
+                        .clientIp(entry.getKey())
+                        .votes(votes)
+                        .threshold(ipMaxVotes));
+            }
+            return counter.idle(now, windowMillis);
+        });
+        candidates.entrySet().removeIf(entry -> evaluateRate(entry.getValue(), now, candidateMinVotes,
+                candidateSpikeFactor, AnomalyAlert.builder()
+                        .type(AnomalyAlert.Type.CANDIDATE_SPIKE)
+                        .electionId((int) (entry.getKey() >> 32))
+                        .candidateId((int) (long) entry.getKey())));
+        elections.entrySet().removeIf(entry -> evaluateRate(entry.getValue(), now, electionMinVotes,
+                electionSpikeFactor, AnomalyAlert.builder()
+                        .type(AnomalyAlert.Type.ELECTION_SPIKE)
+                        .electionId(entry.getKey())));
+    }
+
+    // Returns whether the key went quiet and can be dropped
+    private boolean evaluateRate(WindowCounter counter, long now, long minVotes, double spikeFactor,
+            AnomalyAlert.AnomalyAlertBuilder alert) {
+        long votes = counter.estimate(now, windowMillis);
+        double threshold = Math.max(minVotes, spikeFactor * counter.baseline);
+        if (check(counter, votes, threshold)) {
+            raise(alert.votes(votes).baseline(counter.baseline).threshold(threshold));
+        }
+        counter.baseline += baselineAlpha * (votes - counter.baseline);
+        return counter.idle(now, windowMillis) && counter.baseline < 0.5;
+    }
+
+    // Alerts once when a key crosses its threshold, then again only after it has dropped below
+    private static boolean check(WindowCounter counter, long votes, double threshold) {
+        boolean above = votes > threshold;
+        boolean raise = above && !counter.alerting;
+        counter.alerting = above;
+        return raise;
+    }
+
+    private void raise(AnomalyAlert.AnomalyAlertBuilder builder) {
+        AnomalyAlert alert = builder.windowSeconds(windowMillis / 1000).detectedAt(LocalDateTime.now()).build();
+        log.warn("Vote anomaly {}: election {}, candidate {}, client {}: {} votes in {} s (threshold {})",
+                alert.getType(), alert.getElectionId(), alert.getCandidateId(), alert.getClientIp(),
+                alert.getVotes(), alert.getWindowSeconds(), Math.round(alert.getThreshold()));
+        alertCounters.computeIfAbsent(alert.getType(),
+                type -> meterRegistry.counter("vote.anomaly.alerts", "type", type.name())).increment();
+        synchronized (alerts) {
+            if (alerts.size() == maxAlerts) {
+                alerts.removeFirst();
+            }
+            alerts.addLast(alert);
+        }
+    }
+
+    private static <K> WindowCounter counter(Map<K, WindowCounter> counters, K key) {
+        WindowCounter counter = counters.get(key);
+        return counter != null ? counter : counters.computeIfAbsent(key, k -> new WindowCounter());
+    }
+
+    // Two fixed windows, current and previous, each slot packing (window number << 32 | count) so
+    // rolling over and counting is a single CAS. The sliding count weighs the previous window by
+    // the share of it still inside the sliding window.
+    private static final class WindowCounter {
+        private final AtomicLongArray slots = new AtomicLongArray(2);
+
+        // Evaluator thread only
+        private double baseline;
+        private boolean alerting;
+        private volatile Integer lastElectionId;
+
+        void increment(long window) {
+            int index = (int) (window & 1);
+            while (true) {
+                long current = slots.get(index);
+                long slotWindow = current >>> 32;
+                long next;
+                if (slotWindow == window) {
+                    next = current + 1;
+                } else if (slotWindow < window) {
+                    next = (window << 32) | 1;
+                } else {
+                    return;
+                }
+                if (slots.compareAndSet(index, current, next)) {
+                    return;
+                }
+            }
+        }
+
+        long estimate(long now, long windowMillis) {
+            long window = now / windowMillis;
+            double elapsed = (double) (now % windowMillis) / windowMillis;
+            return Math.round(count(window - 1) * (1 - elapsed)) + count(window);
+        }
+
+        boolean idle(long now, long windowMillis) {
+            long window = now / windowMillis;
+            return count(window) == 0 && count(window - 1) == 0;
+        }
+
+        private long count(long window) {
+            long current = slots.get((int) (window & 1));
+            return (current >>> 32) == window ? current & 0xFFFFFFFFL : 0;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.evoting.vote.archive;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+// index.json of an archived election. Row i of every column file is the same ballot; the
+// candidates column stores codes into `candidates`, whose totals are kept in `counts`.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchiveIndex {
+    private int version;
+    private int electionId;
+    private long rows;
+    private long minId;
+    private long maxId;
+    private long firstTimestamp;
+    private long lastTimestamp;
+    private int[] candidates;
+    private long[] counts;
+    private Map<String, Long> checksums;
+    private long createdAt;
+}
@@ -0,0 +1,151 @@
+package com.evoting.vote.archive;
+
+import com.evoting.vote.dto.ArchiveReport;
+import com.evoting.vote.exception.ElectionNotArchivableException;
+import com.evoting.vote.service.BallotEncryptionService;
+import com.evoting.vote.service.ElectionCatalog;
+import com.evoting.vote.service.ElectionFenceService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+
+// Moves an archived election's ballots out of the hot vote table: export to the columnar
+// archive, verify it, record it in election_archive, then delete the rows in small chunks so the
+// table is never locked for long. Re-running it after a crash resumes where it stopped. Only
+// elections that are closed here and ARCHIVED in election-service are touched.
+@Service
+@Slf4j
+public class ArchiveService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BallotArchive archive;
+    private final BallotEncryptionService ballotEncryption;
+    private final ElectionFenceService electionFence;
+    private final ElectionCatalog electionCatalog;
+    private final int deleteChunkSize;
+    private final boolean ledger;
+
+    public ArchiveService(JdbcTemplate jdbcTemplate, BallotArchive archive, BallotEncryptionService ballotEncryption,
+            ElectionFenceService electionFence, ElectionCatalog electionCatalog,
+            @Value("${vote.archive.delete-chunk-size:5000}") int deleteChunkSize,
+            @Value("${vote.storage.mode:jdbc}") String storageMode) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.archive = archive;
+        this.ballotEncryption = ballotEncryption;
+        this.electionFence = electionFence;
+        this.electionCatalog = electionCatalog;
+        this.deleteChunkSize = deleteChunkSize;
+        this.ledger = "ledger".equals(storageMode);
+    }
+
+    public synchronized ArchiveReport archive(Integer electionId) {
+        long start = System.nanoTime();
+        // The fence guarantees no vote commits after the export; the status is read fresh, not from the cache
+        if (electionFence.fence(electionId) == null
+                || !"ARCHIVED".equals(electionCatalog.currentStatus(electionId))) {
+            throw new ElectionNotArchivableException(electionId);
+        }
+        // The columnar format holds one candidate id per vote row; encrypted and ranked ballots stay in the
+        // vote table and the ledger's tables are already narrow
+        if (archive.index(electionId) == null
+                && (ledger || ballotEncryption.isEncrypted(electionId) || hasRankedBallots(electionId))) {
+            log.info("Election {} has encrypted, ranked or ledger ballots, not archiving", electionId);
+            return ArchiveReport.builder()
+                    .electionId(electionId)
+                    .elapsedMillis((System.nanoTime() - start) / 1_000_000)
+                    .build();
+        }
+        archive.seal(electionId);
+        ArchiveIndex index = archive.index(electionId);
+        try {
+            if (index == null) {
+                index = export(electionId);
+            }
+            // Before any row is deleted, so other replicas stop counting this election from the vote table
+            archive.record(electionId, index);
+            long deleted = purge(electionId, index.getMaxId());
+            ArchiveReport report = ArchiveReport.builder()
+                    .electionId(electionId)
+                    .archivedRows(index.getRows())
+                    .deletedRows(deleted)
+                    .archiveBytes(archive.sizeInBytes(electionId))
+                    .elapsedMillis((System.nanoTime() - start) / 1_000_000)
+                    .build();
+            log.info("Archived election {}: {} ballots, {} rows deleted, {} bytes in {} ms", electionId,
+                    report.getArchivedRows(), report.getDeletedRows(), report.getArchiveBytes(),
+                    report.getElapsedMillis());
+            return report;
+        } catch (IOException e) {
+            archive.unseal(electionId);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            archive.unseal(electionId);
+            throw e;
+        }
+    }
+
+    private boolean hasRankedBallots(Integer electionId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "select exists (select 1 from vote where election_id = ? and ranking is not null)", Boolean.class,
+                electionId));
+    }
+
+    private ArchiveIndex export(Integer electionId) throws IOException {
+        ArchiveIndex index;
+        try (BallotArchive.Writer writer = archive.newWriter(electionId)) {
+            IOException[] failure = new IOException[1];
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(
+                        "select id, voter_id, candidate_id, timestamp from vote where election_id = ? order by id",
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setInt(1, electionId);
+                ps.setFetchSize(Integer.MIN_VALUE);
+                return ps;
+            }, (RowCallbackHandler) rs -> {
+                if (failure[0] != null) {
+                    return;
+                }
+                Timestamp timestamp = rs.getTimestamp(4);
+                try {
+                    writer.add(rs.getLong(1), rs.getInt(2), rs.getInt(3), timestamp != null ? timestamp.getTime() : 0L);
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+            index = writer.commit();
+        }
+
+        // Nothing may be deleted unless the archive reads back intact and covers every row it replaces
+        Long hotRows = jdbcTemplate.queryForObject(
+                "select count(*) from vote where election_id = ? and id <= ?", Long.class,
+                electionId, index.getMaxId());
+        if (!archive.verify(electionId) || hotRows == null || (index.getRows() > 0 && hotRows != index.getRows())) {
+            archive.discard(electionId);
+            throw new RuntimeException("Archive of election " + electionId
+                    + " does not match the vote table, nothing was deleted; retry once the election is closed");
+        }
+        return index;
+    }
+
+    private long purge(Integer electionId, long maxId) {
+        long deleted = 0;
+        int batch;
+        do {
+            batch = jdbcTemplate.update("delete from vote where election_id = ? and id <= ? limit ?",
+                    electionId, maxId, deleteChunkSize);
+            deleted += batch;
+        } while (batch == deleteChunkSize);
+        return deleted;
+    }
+}
@@ -0,0 +1,421 @@
+package com.evoting.vote.archive;
+
+import com.evoting.vote.dto.Tally;
+import com.evoting.vote.dto.TallyReport;
+import com.evoting.vote.exception.ArchiveNotFoundException;
+import com.evoting.vote.exception.ArchiveUnavailableException;
+import com.evoting.vote.model.ElectionArchive;
+import com.evoting.vote.repository.ElectionArchiveRepository;
+import com.evoting.vote.store.VoteRecordHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+// Ballots of archived elections, one directory per election with a file per column:
+// ids.col and timestamps.col (long), voters.col and candidates.col (int), plus index.json.
+// Columns are read through read-only memory maps, so a re-tally is a sequential int scan.
+// vote.archive.dir must be storage every replica mounts at the same path: the election_archive
+// table tells each node which elections are archived, and their files are read from there.
+@Component
+@Slf4j
+public class BallotArchive {
+
+    static final String IDS = "ids.col";
+    static final String VOTERS = "voters.col";
+    static final String CANDIDATES = "candidates.col";
+    static final String TIMESTAMPS = "timestamps.col";
+    static final String INDEX = "index.json";
+
+    private static final int VERSION = 1;
+    // Rows mapped at a time: 1 GiB of a long column, 512 MiB of an int column
+    private static final int ROWS_PER_MAP = 1 << 27;
+    private static final int CODE_BATCH = 8192;
+
+    private final Path root;
+    private final ObjectMapper objectMapper;
+    private final Map<Integer, ArchiveIndex> archived = new ConcurrentHashMap<>();
+    private final Set<Integer> sealed = ConcurrentHashMap.newKeySet();
+    // Archived according to election_archive, but index.json is not readable from this node
+    private final Map<Integer, String> unreachable = new ConcurrentHashMap<>();
+    private final ElectionArchiveRepository archiveRepository;
+
+    public BallotArchive(@Value("${vote.archive.dir:data/archive}") String dir, ObjectMapper objectMapper,
+            ElectionArchiveRepository archiveRepository) {
+        this.root = Paths.get(dir);
+        this.objectMapper = objectMapper;
+        this.archiveRepository = archiveRepository;
+    }
+
+    @PostConstruct
+    public void load() throws IOException {
+        Files.createDirectories(root);
+        try (Stream<Path> dirs = Files.list(root)) {
+            for (Path dir : dirs.toList()) {
+                String name = dir.getFileName().toString();
+                if (name.endsWith(".tmp")) {
+                    // Export that never committed
+                    deleteRecursively(dir);
+                } else if (name.startsWith("election-") && Files.exists(dir.resolve(INDEX))) {
+                    ArchiveIndex index = objectMapper.readValue(dir.resolve(INDEX).toFile(), ArchiveIndex.class);
+                    archived.put(index.getElectionId(), index);
+                    sealed.add(index.getElectionId());
+                }
+            }
+        }
+        refresh();
+        log.info("Ballot archive at {} holds {} elections", root.toAbsolutePath(), archived.size());
+    }
+
+    // Picks up elections archived through another replica
+    @Scheduled(fixedDelayString = "${vote.archive.refresh-interval-ms:30000}",
+            initialDelayString = "${vote.archive.refresh-interval-ms:30000}")
+    public void refresh() {
+        try {
+            for (ElectionArchive record : archiveRepository.findAll()) {
+                if (!archived.containsKey(record.getElectionId())) {
+                    attach(record);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh archived elections: {}", e.getMessage());
+        }
+    }
+
+    // Checks election_archive on a miss, so a node learns of an archive before its next refresh; for
+    // tallies and audits, not the cast path
+    public boolean isArchived(int electionId) {
+        if (archived.containsKey(electionId) || unreachable.containsKey(electionId)) {
+            return true;
+        }
+        ElectionArchive record = archiveRepository.findById(electionId).orElse(null);
+        if (record == null) {
+            return false;
+        }
+        attach(record);
+        return true;
+    }
+
+    // Registers a committed archive; called before any of the election's vote rows are deleted
+    void record(int electionId, ArchiveIndex index) {
+        archiveRepository.save(ElectionArchive.builder()
+                .electionId(electionId)
+                .location(directory(electionId).toAbsolutePath().toString())
+                .ballots(index.getRows())
+                .maxId(index.getMaxId())
+                .archivedAt(LocalDateTime.now())
+                .build());
+    }
+
+    private void attach(ElectionArchive record) {
+        int electionId = record.getElectionId();
+        sealed.add(electionId);
+        Path index = directory(electionId).resolve(INDEX);
+        try {
+            if (Files.exists(index)) {
+                archived.put(electionId, objectMapper.readValue(index.toFile(), ArchiveIndex.class));
+                unreachable.remove(electionId);
+                return;
+            }
+        } catch (IOException e) {
+            log.error("Unreadable archive index {}", index, e);
+        }
+        if (unreachable.put(electionId, record.getLocation()) == null) {
+            log.error("Election {} is archived at {}, which is not readable here as {}; vote.archive.dir must be "
+                    + "shared by every replica", electionId, record.getLocation(), index.getParent().toAbsolutePath());
+        }
+    }
+
+    // Sealed elections take no new votes: set before export starts and kept once archived
+    public boolean isSealed(int electionId) {
+        return sealed.contains(electionId);
+    }
+
+    void seal(int electionId) {
+        sealed.add(electionId);
+    }
+
+    void unseal(int electionId) {
+        if (!archived.containsKey(electionId)) {
+            sealed.remove(electionId);
+        }
+    }
+
+    public ArchiveIndex index(int electionId) {
+        return archived.get(electionId);
+    }
+
+    Writer newWriter(int electionId) throws IOException {
+        return new Writer(electionId);
+    }
+
+    void discard(int electionId) throws IOException {
+        archived.remove(electionId);
+        deleteRecursively(directory(electionId));
+    }
+
+    public TallyReport tally(int electionId) {
+        ArchiveIndex index = requireIndex(electionId);
+        long start = System.nanoTime();
+        long[] counts = new long[index.getCandidates().length];
+        int[] codes = new int[CODE_BATCH];
+        Path dir = directory(electionId);
+        try (FileChannel channel = FileChannel.open(dir.resolve(CANDIDATES), StandardOpenOption.READ)) {
+            for (long row = 0; row < index.getRows(); row += ROWS_PER_MAP) {
+                int n = (int) Math.min(ROWS_PER_MAP, index.getRows() - row);
+                IntBuffer column = channel.map(FileChannel.MapMode.READ_ONLY, row * Integer.BYTES,
+                        (long) n * Integer.BYTES).asIntBuffer();
+                while (column.hasRemaining()) {
+                    int batch = Math.min(codes.length, column.remaining());
+                    column.get(codes, 0, batch);
+                    for (int i = 0; i < batch; i++) {
+                        counts[codes[i]]++;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!Arrays.equals(counts, index.getCounts())) {
+            log.error("Archive of election {} re-tallied to {} but its index records {}",
+                    electionId, Arrays.toString(counts), Arrays.toString(index.getCounts()));
+        }
+        return TallyReport.builder()
+                .electionId(electionId)
+                .tally(Tally.of(index.getCandidates(), counts))
+                .rowsScanned(index.getRows())
+                .elapsedMillis((System.nanoTime() - start) / 1_000_000)
+                .build();
+    }
+
+    // Every archived ballot of the election, in id order
+    public void scan(int electionId, VoteRecordHandler handler) {
+        ArchiveIndex index = requireIndex(electionId);
+        int[] candidates = index.getCandidates();
+        Path dir = directory(electionId);
+        try (FileChannel ids = FileChannel.open(dir.resolve(IDS), StandardOpenOption.READ);
+             FileChannel voters = FileChannel.open(dir.resolve(VOTERS), StandardOpenOption.READ);
+             FileChannel codes = FileChannel.open(dir.resolve(CANDIDATES), StandardOpenOption.READ);
+             FileChannel timestamps = FileChannel.open(dir.resolve(TIMESTAMPS), StandardOpenOption.READ)) {
+            for (long row = 0; row < index.getRows(); row += ROWS_PER_MAP) {
+                int n = (int) Math.min(ROWS_PER_MAP, index.getRows() - row);
+                LongBuffer idColumn = mapLongs(ids, row, n);
+                IntBuffer voterColumn = mapInts(voters, row, n);
+                IntBuffer codeColumn = mapInts(codes, row, n);
+                LongBuffer timestampColumn = mapLongs(timestamps, row, n);
+                for (int i = 0; i < n; i++) {
+                    handler.onVote(idColumn.get(i), electionId, voterColumn.get(i),
+                            candidates[codeColumn.get(i)], timestampColumn.get(i));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Recomputes each column's CRC32 from the mapped files and compares it to the index
+    boolean verify(int electionId) throws IOException {
+        ArchiveIndex index = requireIndex(electionId);
+        Path dir = directory(electionId);
+        for (Map.Entry<String, Long> entry : index.getChecksums().entrySet()) {
+            CRC32 crc = new CRC32();
+            try (FileChannel channel = FileChannel.open(dir.resolve(entry.getKey()), StandardOpenOption.READ)) {
+                long size = channel.size();
+                for (long position = 0; position < size; position += Integer.MAX_VALUE) {
+                    crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position,
+                            Math.min(Integer.MAX_VALUE, size - position)));
+                }
+            }
+            if (crc.getValue() != entry.getValue()) {
+                log.error("Archive of election {}: checksum mismatch on {}", electionId, entry.getKey());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long sizeInBytes(int electionId) throws IOException {
+        try (Stream<Path> files = Files.list(directory(electionId))) {
+            long total = 0;
+            for (Path file : files.toList()) {
+                total += Files.size(file);
+            }
+            return total;
+        }
+    }
+
+    private ArchiveIndex requireIndex(int electionId) {
+        ArchiveIndex index = archived.get(electionId);
+        if (index == null && isArchived(electionId)) {
+            index = archived.get(electionId);
+        }
+        if (index == null) {
+            String location = unreachable.get(electionId);
+            if (location != null) {
+                throw new ArchiveUnavailableException(electionId, location);
+            }
+            throw new ArchiveNotFoundException(electionId);
+        }
+        return index;
+    }
+
+    private Path directory(int electionId) {
+        return root.resolve("election-" + electionId);
+    }
+
+    private static IntBuffer mapInts(FileChannel channel, long row, int n) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, row * Integer.BYTES, (long) n * Integer.BYTES)
+                .asIntBuffer();
+    }
+
+    private static LongBuffer mapLongs(FileChannel channel, long row, int n) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, row * Long.BYTES, (long) n * Long.BYTES)
+                .asLongBuffer();
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    // Appends rows to the column files of election-N.tmp; commit() fsyncs them, writes the index
+    // and renames the directory into place, so a crash never leaves a half-written archive.
+    final class Writer implements AutoCloseable {
+        private final int electionId;
+        private final Path tmp;
+        private final Map<String, Column> columns = new LinkedHashMap<>();
+        private final Map<Integer, Integer> codes = new HashMap<>();
+        private int[] candidates = new int[16];
+        private long[] counts = new long[16];
+        private long rows;
+        private long minId = Long.MAX_VALUE;
+        private long maxId = Long.MIN_VALUE;
+        private long firstTimestamp = Long.MAX_VALUE;
+        private long lastTimestamp = Long.MIN_VALUE;
+        private boolean committed;
+
+        private Writer(int electionId) throws IOException {
+            this.electionId = electionId;
+            this.tmp = root.resolve("election-" + electionId + ".tmp");
+            deleteRecursively(tmp);
+            Files.createDirectories(tmp);
+            for (String name : new String[] { IDS, VOTERS, CANDIDATES, TIMESTAMPS }) {
+                columns.put(name, new Column(tmp.resolve(name)));
+            }
+        }
+
+        void add(long id, int voterId, int candidateId, long timestampMillis) throws IOException {
+            Integer code = codes.get(candidateId);
+            if (code == null) {
+                code = codes.size();
+                codes.put(candidateId, code);
+                if (code == candidates.length) {
+                    candidates = Arrays.copyOf(candidates, code * 2);
+                    counts = Arrays.copyOf(counts, code * 2);
+                }
+                candidates[code] = candidateId;
+            }
+            counts[code]++;
+            columns.get(IDS).out.writeLong(id);
+            columns.get(VOTERS).out.writeInt(voterId);
+            columns.get(CANDIDATES).out.writeInt(code);
+            columns.get(TIMESTAMPS).out.writeLong(timestampMillis);
+            rows++;
+            minId = Math.min(minId, id);
+            maxId = Math.max(maxId, id);
+            firstTimestamp = Math.min(firstTimestamp, timestampMillis);
+            lastTimestamp = Math.max(lastTimestamp, timestampMillis);
+        }
+
+        ArchiveIndex commit() throws IOException {
+            Map<String, Long> checksums = new LinkedHashMap<>();
+            for (Map.Entry<String, Column> entry : columns.entrySet()) {
+                checksums.put(entry.getKey(), entry.getValue().finish());
+                entry.getValue().out.close();
+            }
+            ArchiveIndex index = ArchiveIndex.builder()
+                    .version(VERSION)
+                    .electionId(electionId)
+                    .rows(rows)
+                    .minId(rows == 0 ? 0 : minId)
+                    .maxId(rows == 0 ? 0 : maxId)
+                    .firstTimestamp(rows == 0 ? 0 : firstTimestamp)
+                    .lastTimestamp(rows == 0 ? 0 : lastTimestamp)
+                    .candidates(Arrays.copyOf(candidates, codes.size()))
+                    .counts(Arrays.copyOf(counts, codes.size()))
+                    .checksums(checksums)
+                    .createdAt(System.currentTimeMillis())
+                    .build();
+            try (FileOutputStream out = new FileOutputStream(tmp.resolve(INDEX).toFile())) {
+                out.write(objectMapper.writeValueAsBytes(index));
+                out.getChannel().force(true);
+            }
+            Path target = directory(electionId);
+            deleteRecursively(target);
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            archived.put(electionId, index);
+            committed = true;
+            return index;
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (Column column : columns.values()) {
+                column.out.close();
+            }
+            if (!committed) {
+                deleteRecursively(tmp);
+            }
+        }
+    }
+
+    private static final class Column {
+        private final FileOutputStream file;
+        private final DataOutputStream out;
+        private final CRC32 crc = new CRC32();
+
+        Column(Path path) throws IOException {
+            this.file = new FileOutputStream(path.toFile());
+            this.out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(file, crc), 1 << 16));
+        }
+
+        long finish() throws IOException {
+            out.flush();
+            file.getChannel().force(true);
+            return crc.getValue();
+        }
+    }
+}
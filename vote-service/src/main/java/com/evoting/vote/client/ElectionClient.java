@@ -0,0 +1,25 @@
+package com.evoting.vote.client;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+@FeignClient(name = "ELECTION-SERVICE")
+public interface ElectionClient {
+
+    @GetMapping("/election/{id}")
+    ElectionDto getElection(@PathVariable("id") Integer id);
+
+    @lombok.Data
+    class ElectionDto {
+        private Integer id;
+        private String title;
+        private String status;
+        private LocalDateTime startAt;
+        private LocalDateTime endAt;
+        private Set<Integer> candidateIds;
+    }
+}
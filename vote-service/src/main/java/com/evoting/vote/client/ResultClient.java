@@ -0,0 +1,22 @@
+package com.evoting.vote.client;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@FeignClient(name = "RESULT-SERVICE")
+public interface ResultClient {
+
+    @GetMapping("/result/{electionId}")
+    List<ResultDto> getResults(@PathVariable("electionId") Integer electionId);
+
+    @lombok.Data
+    class ResultDto {
+        private Integer candidateId;
+        private Long voteCount;
+        private LocalDateTime calculatedAt;
+    }
+}
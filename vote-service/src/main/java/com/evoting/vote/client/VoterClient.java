@@ -0,0 +1,22 @@
+package com.evoting.vote.client;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.time.LocalDateTime;
+
+@FeignClient(name = "VOTER-SERVICE")
+public interface VoterClient {
+
+    // since (ISO local date-time) == null returns every VERIFIED userId in granted
+    @GetMapping("/voter/eligibility")
+    EligibilityDto getEligibility(@RequestParam(value = "since", required = false) String since);
+
+    @lombok.Data
+    class EligibilityDto {
+        private int[] granted;
+        private int[] revoked;
+        private LocalDateTime asOf;
+    }
+}
@@ -1,35 +1,204 @@
 package com.evoting.vote.controller;
 
+import com.evoting.vote.anomaly.VoteAnomalyDetector;
+import com.evoting.vote.archive.ArchiveService;
+import com.evoting.vote.archive.BallotArchive;
+import com.evoting.vote.client.ElectionClient;
+import com.evoting.vote.dto.AnomalyAlert;
+import com.evoting.vote.dto.ArchiveReport;
+import com.evoting.vote.dto.AuditSample;
+import com.evoting.vote.dto.ImportReport;
+import com.evoting.vote.dto.MerkleProof;
+import com.evoting.vote.dto.MerkleRoot;
+import com.evoting.vote.dto.Tally;
+import com.evoting.vote.dto.TallyReport;
+import com.evoting.vote.dto.TurnoutSeries;
+import com.evoting.vote.dto.VotePage;
 import com.evoting.vote.dto.VoteRequest;
+import com.evoting.vote.merkle.MerkleLogService;
+import com.evoting.vote.model.ElectionFence;
 import com.evoting.vote.model.Vote;
+import com.evoting.vote.service.AuditService;
+import com.evoting.vote.service.BallotImportService;
+import com.evoting.vote.service.ElectionCatalog;
+import com.evoting.vote.service.ElectionFenceService;
+import com.evoting.vote.service.EligibilityService;
+import com.evoting.vote.service.IdempotencyService;
+import com.evoting.vote.service.LiveTallyService;
+import com.evoting.vote.service.MyVotesService;
+import com.evoting.vote.service.RankedBallotService;
+import com.evoting.vote.service.TurnoutService;
 import com.evoting.vote.service.VoteService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/vote")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 public class VoteController {
 
     private final VoteService service;
+    private final LiveTallyService liveTallyService;
+    private final BallotImportService importService;
+    private final MyVotesService myVotesService;
+    private final TurnoutService turnoutService;
+    private final IdempotencyService idempotencyService;
+    private final ArchiveService archiveService;
+    private final BallotArchive ballotArchive;
+    private final MerkleLogService merkleLogService;
+    private final ElectionFenceService electionFenceService;
+    private final RankedBallotService rankedBallotService;
+    private final VoteAnomalyDetector anomalyDetector;
+    private final AuditService auditService;
+    private final EligibilityService eligibilityService;
+    private final ElectionCatalog electionCatalog;
 
+    // Retries carrying the same Idempotency-Key get the original answer; after an unacknowledged cast the
+    // retry reads it back from the store
     @PostMapping
-    public ResponseEntity<Vote> castVote(@RequestHeader("X-User-Id") Integer userId, @RequestBody VoteRequest request) {
+    public ResponseEntity<Vote> castVote(@RequestHeader("X-User-Id") Integer userId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestHeader(value = "X-Forwarded-For", required = false) String forwardedFor,
+            @RequestBody VoteRequest request,
+            HttpServletRequest httpRequest) {
         if (userId == null)
             userId = 999; // Fallback dev
-        return ResponseEntity.ok(service.castVote(userId, request));
+        String clientIp = anomalyDetector.clientIp(forwardedFor, httpRequest.getRemoteAddr());
+        if (idempotencyKey == null) {
+            return ResponseEntity.ok(service.castVote(userId, request, clientIp));
+        }
+        Integer voterId = userId;
+        return ResponseEntity.ok(idempotencyService.execute(voterId, idempotencyKey, request,
+                () -> service.castVote(voterId, request, clientIp)));
+    }
+
+    // Internal endpoint for election-service, called when an election's status or candidates change
+    @PutMapping("/elections/{electionId}")
+    public ResponseEntity<?> updateElection(@PathVariable Integer electionId,
+            @RequestBody ElectionClient.ElectionDto election) {
+        election.setId(electionId);
+        electionCatalog.update(election);
+        return ResponseEntity.ok().build();
+    }
+
+    // Internal endpoint for voter-service, called when a voter's status changes
+    @PutMapping("/eligibility/{userId}")
+    public ResponseEntity<?> updateEligibility(@PathVariable Integer userId, @RequestParam boolean eligible) {
+        eligibilityService.update(userId, eligible);
+        return ResponseEntity.ok().build();
+    }
+
+    // Most recent first; electionId narrows them to one election
+    @GetMapping("/anomalies")
+    public ResponseEntity<List<AnomalyAlert>> getAnomalies(@RequestParam(required = false) Integer electionId) {
+        return ResponseEntity.ok(anomalyDetector.getAlerts(electionId));
     }
 
     @GetMapping("/my-votes")
-    public ResponseEntity<java.util.List<Vote>> getMyVotes(@RequestHeader("X-User-Id") Integer userId) {
+    public ResponseEntity<VotePage> getMyVotes(@RequestHeader("X-User-Id") Integer userId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
         if (userId == null)
             userId = 999;
-        return ResponseEntity.ok(service.getUserVotes(userId));
+        return ResponseEntity.ok(myVotesService.getVotes(userId, after, limit));
     }
 
     @GetMapping("/{electionId}/tally")
     public ResponseEntity<java.util.Map<Integer, Long>> getTally(@PathVariable Integer electionId) {
         return ResponseEntity.ok(service.tallyVotes(electionId));
     }
+
+    // Array-based form used between services: {"candidates":[..],"counts":[..]}
+    @GetMapping("/{electionId}/tally/compact")
+    public ResponseEntity<Tally> getCompactTally(@PathVariable Integer electionId) {
+        return ResponseEntity.ok(service.compactTally(electionId));
+    }
+
+    @GetMapping("/{electionId}/tally/report")
+    public ResponseEntity<TallyReport> getTallyReport(@PathVariable Integer electionId) {
+        return ResponseEntity.ok(service.tallyReport(electionId));
+    }
+
+    @GetMapping("/{electionId}/live-tally")
+    public ResponseEntity<java.util.Map<Integer, Long>> getLiveTally(@PathVariable Integer electionId) {
+        return ResponseEntity.ok(liveTallyService.getLiveTally(electionId));
+    }
+
+    @GetMapping("/{electionId}/turnout")
+    public ResponseEntity<TurnoutSeries> getTurnout(@PathVariable Integer electionId,
+            @RequestParam(defaultValue = "MINUTE") TurnoutService.Resolution resolution,
+            @RequestParam(defaultValue = "60") int points) {
+        return ResponseEntity.ok(turnoutService.getTurnout(electionId, resolution, points));
+    }
+
+    @GetMapping("/{electionId}/merkle/root")
+    public ResponseEntity<MerkleRoot> getMerkleRoot(@PathVariable Integer electionId) {
+        return ResponseEntity.ok(merkleLogService.getRoot(electionId));
+    }
+
+    // Inclusion proof for a leaf index, or for the vote id on a vote receipt
+    @GetMapping("/{electionId}/merkle/proof")
+    public ResponseEntity<MerkleProof> getMerkleProof(@PathVariable Integer electionId,
+            @RequestParam(required = false) Long leaf,
+            @RequestParam(required = false) Long vote,
+            @RequestParam(required = false) Long treeSize) {
+        if (leaf == null && vote == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(leaf != null
+                ? merkleLogService.getProof(electionId, leaf, treeSize)
+                : merkleLogService.getProofForVote(electionId, vote, treeSize));
+    }
+
+    // Packed ranked ballots for result-service's instant-runoff count
+    @GetMapping(value = "/{electionId}/ballots/ranked", produces = "application/octet-stream")
+    public ResponseEntity<StreamingResponseBody> getRankedBallots(@PathVariable Integer electionId) {
+        return ResponseEntity.ok(output -> rankedBallotService.export(electionId, output));
+    }
+
+    // Reproducible ballot sample for a risk-limiting audit of the published results
+    @GetMapping("/{electionId}/audit/sample")
+    public ResponseEntity<AuditSample> getAuditSample(@PathVariable Integer electionId,
+            @RequestParam int size,
+            @RequestParam long seed,
+            @RequestParam(required = false) Double riskLimit) {
+        return ResponseEntity.ok(auditService.sample(electionId, size, seed, riskLimit));
+    }
+
+    // Stops accepting votes and records the watermark the final tally is counted up to
+    @PostMapping("/{electionId}/close")
+    public ResponseEntity<ElectionFence> closeElection(@PathVariable Integer electionId) {
+        return ResponseEntity.ok(electionFenceService.close(electionId));
+    }
+
+    // Moves the ballots of an ARCHIVED election from the vote table into the columnar archive
+    @PostMapping("/{electionId}/archive")
+    public ResponseEntity<ArchiveReport> archiveElection(@PathVariable Integer electionId) {
+        return ResponseEntity.ok(archiveService.archive(electionId));
+    }
+
+    // Recount straight from the archive files, for audits
+    @GetMapping("/{electionId}/archive/tally")
+    public ResponseEntity<TallyReport> getArchiveTally(@PathVariable Integer electionId) {
+        return ResponseEntity.ok(ballotArchive.tally(electionId));
+    }
+
+    // Bulk load of offline / paper ballots: text/csv (electionId,voterId,candidateId[,timestamp]) or
+    // application/x-ndjson, streamed from the request body
+    @PostMapping(value = "/import", consumes = { "text/csv", "application/x-ndjson", "text/plain" })
+    public ResponseEntity<ImportReport> importBallots(
+            @RequestHeader(org.springframework.http.HttpHeaders.CONTENT_TYPE) String contentType,
+            java.io.InputStream body) throws java.io.IOException {
+        BallotImportService.Format format = contentType.contains("ndjson")
+                ? BallotImportService.Format.NDJSON
+                : BallotImportService.Format.CSV;
+        return ResponseEntity.ok(importService.importBallots(body, format));
+    }
 }
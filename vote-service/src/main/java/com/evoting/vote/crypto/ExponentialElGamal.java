@@ -0,0 +1,141 @@
+package com.evoting.vote.crypto;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.HashMap;
+import java.util.Map;
+
+// Exponential ElGamal over the RFC 3526 2048-bit MODP group: Enc(m) = (g^r, g^m * h^r), so
+// multiplying ciphertexts adds the plaintexts. Decryption yields g^m and m is recovered with
+// baby-step giant-step, which is cheap because m is at most the number of ballots.
+public final class ExponentialElGamal {
+
+    public static final BigInteger P = new BigInteger(
+            "FFFFFFFFFFFFFFFFC90FDAA22168C234C4C6628B80DC1CD129024E088A67CC74020BBEA63B139B22514A08798E3404DD"
+                    + "EF9519B3CD3A431B302B0A6DF25F14374FE1356D6D51C245E485B576625E7EC6F44C42E9A637ED6B0BFF5CB6F406B7ED"
+                    + "EE386BFB5A899FA5AE9F24117C4B1FE649286651ECE45B3DC2007CB8A163BF0598DA48361C55D39A69163FA8FD24CF5F"
+                    + "83655D23DCA3AD961C62F356208552BB9ED529077096966D670C354E4ABC9804F1746C08CA18217C32905E462E36CE3B"
+                    + "E39E772C180E86039B2783A2EC07A28FB5C55DF06F4C52C9DE2BCBF6955817183995497CEA956AE515D2261898FA0510"
+                    + "15728E5A8AACAA68FFFFFFFFFFFFFFFF", 16);
+    public static final BigInteger Q = P.subtract(BigInteger.ONE).shiftRight(1);
+    public static final BigInteger G = BigInteger.TWO;
+
+    // Fixed width of one group element in the ballot encoding
+    public static final int ELEMENT_BYTES = 256;
+
+    // Encryption randomness is drawn from 256 bits rather than the full subgroup order: the usual
+    // short-exponent setting for safe-prime groups, and eight times fewer squarings per cast
+    private static final int RANDOMNESS_BITS = 256;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private ExponentialElGamal() {
+    }
+
+    public static BigInteger newSecretKey() {
+        BigInteger x;
+        do {
+            x = new BigInteger(Q.bitLength(), RANDOM);
+        } while (x.signum() == 0 || x.compareTo(Q) >= 0);
+        return x;
+    }
+
+    public static BigInteger publicKey(BigInteger secretKey) {
+        return G.modPow(secretKey, P);
+    }
+
+    // One-hot ballot: slot i carries Enc(1) for the chosen candidate and Enc(0) everywhere else
+    public static byte[] encryptChoice(BigInteger publicKey, int slots, int chosen) {
+        byte[] ballot = new byte[slots * 2 * ELEMENT_BYTES];
+        for (int i = 0; i < slots; i++) {
+            BigInteger r;
+            do {
+                r = new BigInteger(RANDOMNESS_BITS, RANDOM);
+            } while (r.signum() == 0);
+            BigInteger a = G.modPow(r, P);
+            BigInteger b = publicKey.modPow(r, P);
+            if (i == chosen) {
+                b = b.multiply(G).mod(P);
+            }
+            write(a, ballot, (2 * i) * ELEMENT_BYTES);
+            write(b, ballot, (2 * i + 1) * ELEMENT_BYTES);
+        }
+        return ballot;
+    }
+
+    public static int slots(byte[] ballot) {
+        return ballot.length / (2 * ELEMENT_BYTES);
+    }
+
+    // Component-wise product into acc, laid out as a0, b0, a1, b1, ...
+    public static void accumulate(BigInteger[] acc, byte[] ballot) {
+        for (int i = 0; i < acc.length; i++) {
+            acc[i] = acc[i].multiply(new BigInteger(1, ballot, i * ELEMENT_BYTES, ELEMENT_BYTES)).mod(P);
+        }
+    }
+
+    public static void combine(BigInteger[] acc, BigInteger[] other) {
+        for (int i = 0; i < acc.length; i++) {
+            acc[i] = acc[i].multiply(other[i]).mod(P);
+        }
+    }
+
+    public static BigInteger[] identity(int slots) {
+        BigInteger[] acc = new BigInteger[slots * 2];
+        java.util.Arrays.fill(acc, BigInteger.ONE);
+        return acc;
+    }
+
+    // Plain counts from an accumulated tally; each count is known to lie in [0, maxCount]
+    public static long[] decrypt(BigInteger secretKey, BigInteger[] acc, long maxCount) {
+        DiscreteLog log = new DiscreteLog(maxCount);
+        long[] counts = new long[acc.length / 2];
+        for (int i = 0; i < counts.length; i++) {
+            BigInteger shared = acc[2 * i].modPow(secretKey, P);
+            BigInteger gm = acc[2 * i + 1].multiply(shared.modInverse(P)).mod(P);
+            counts[i] = log.solve(gm);
+        }
+        return counts;
+    }
+
+    private static void write(BigInteger value, byte[] target, int offset) {
+        byte[] bytes = value.toByteArray();
+        // toByteArray may carry a leading sign byte or be shorter than the element width
+        int skip = bytes.length > ELEMENT_BYTES ? bytes.length - ELEMENT_BYTES : 0;
+        int length = bytes.length - skip;
+        System.arraycopy(bytes, skip, target, offset + ELEMENT_BYTES - length, length);
+    }
+
+    // Baby-step giant-step for g^m with m in [0, max]: sqrt(max) table entries and multiplications
+    private static final class DiscreteLog {
+
+        private final Map<BigInteger, Integer> babySteps = new HashMap<>();
+        private final BigInteger giantStep;
+        private final long step;
+        private final long max;
+
+        DiscreteLog(long max) {
+            this.max = max;
+            this.step = (long) Math.ceil(Math.sqrt(max + 1.0));
+            BigInteger value = BigInteger.ONE;
+            for (int j = 0; j < step; j++) {
+                babySteps.putIfAbsent(value, j);
+                value = value.multiply(G).mod(P);
+            }
+            // value is now g^step
+            this.giantStep = value.modInverse(P);
+        }
+
+        long solve(BigInteger gm) {
+            BigInteger gamma = gm;
+            for (long i = 0; i * step <= max; i++) {
+                Integer j = babySteps.get(gamma);
+                if (j != null) {
+                    return i * step + j;
+                }
+                gamma = gamma.multiply(giantStep).mod(P);
+            }
+            throw new IllegalStateException("Decrypted count is out of range, wrong key or corrupted ballots");
+        }
+    }
+}
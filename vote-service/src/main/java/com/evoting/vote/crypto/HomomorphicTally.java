@@ -0,0 +1,66 @@
+package com.evoting.vote.crypto;
+
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+// Multiplies every ballot of an election into one encrypted tally. The id range is split in
+// halves until a partition is small enough, each partition is read and multiplied on its own
+// worker, and partial products are combined on the way back up: the product is associative
+// and commutative, so the split does not change the result.
+public final class HomomorphicTally {
+
+    // Streams the ballots whose key lies in [from, to)
+    @FunctionalInterface
+    public interface BallotSource {
+        void read(long from, long to, Consumer<byte[]> ballots);
+    }
+
+    private HomomorphicTally() {
+    }
+
+    public static BigInteger[] sum(ForkJoinPool pool, BallotSource source, int slots, long from, long to,
+            long grain) {
+        return pool.invoke(new Partition(source, slots, from, to, Math.max(1, grain)));
+    }
+
+    private static final class Partition extends RecursiveTask<BigInteger[]> {
+
+        private final BallotSource source;
+        private final int slots;
+        private final long from;
+        private final long to;
+        private final long grain;
+
+        Partition(BallotSource source, int slots, long from, long to, long grain) {
+            this.source = source;
+            this.slots = slots;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected BigInteger[] compute() {
+            if (to - from <= grain) {
+                BigInteger[] acc = ExponentialElGamal.identity(slots);
+                source.read(from, to, ballot -> {
+                    if (ExponentialElGamal.slots(ballot) != slots) {
+                        throw new IllegalStateException("Ballot has " + ExponentialElGamal.slots(ballot)
+                                + " slots, expected " + slots);
+                    }
+                    ExponentialElGamal.accumulate(acc, ballot);
+                });
+                return acc;
+            }
+            long mid = from + (to - from) / 2;
+            Partition left = new Partition(source, slots, from, mid, grain);
+            Partition right = new Partition(source, slots, mid, to, grain);
+            left.fork();
+            BigInteger[] acc = right.compute();
+            ExponentialElGamal.combine(acc, left.join());
+            return acc;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.evoting.vote.crypto;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+
+// AES-256-GCM under a key that lives outside the database: wraps election secret keys and seals the
+// ledger's pooled ballots. Sealed form is nonce || ciphertext+tag; a context string (which table, which
+// election) is bound as associated data, so a value copied to another row does not open.
+public final class KeyWrap {
+
+    private static final int NONCE_BYTES = 12;
+    private static final int TAG_BITS = 128;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private KeyWrap() {
+    }
+
+    // Base64 of 32 random bytes, e.g. `openssl rand -base64 32`
+    public static SecretKey masterKey(String base64) {
+        byte[] key = Base64.getDecoder().decode(base64.trim());
+        if (key.length != 32) {
+            throw new IllegalArgumentException("Master key must be 32 bytes, got " + key.length);
+        }
+        return new SecretKeySpec(key, "AES");
+    }
+
+    public static byte[] wrap(SecretKey masterKey, int electionId, byte[] key) {
+        return seal(masterKey, "election_key:" + electionId, key);
+    }
+
+    public static byte[] unwrap(SecretKey masterKey, int electionId, byte[] wrapped) {
+        return open(masterKey, "election_key:" + electionId, wrapped);
+    }
+
+    public static byte[] seal(SecretKey key, String context, byte[] input) {
+        byte[] nonce = new byte[NONCE_BYTES];
+        RANDOM.nextBytes(nonce);
+        byte[] sealed = cipher(Cipher.ENCRYPT_MODE, key, context, nonce, input);
+        return ByteBuffer.allocate(NONCE_BYTES + sealed.length).put(nonce).put(sealed).array();
+    }
+
+    public static byte[] open(SecretKey key, String context, byte[] sealed) {
+        return cipher(Cipher.DECRYPT_MODE, key, context, Arrays.copyOf(sealed, NONCE_BYTES),
+                Arrays.copyOfRange(sealed, NONCE_BYTES, sealed.length));
+    }
+
+    private static byte[] cipher(int mode, SecretKey key, String context, byte[] nonce, byte[] input) {
+        try {
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(mode, key, new GCMParameterSpec(TAG_BITS, nonce));
+            cipher.updateAAD(context.getBytes(StandardCharsets.US_ASCII));
+            return cipher.doFinal(input);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot " + (mode == Cipher.ENCRYPT_MODE ? "seal" : "open") + " "
+                    + context, e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.evoting.vote.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnomalyAlert {
+
+    public enum Type {
+        // One client address casting for many accounts
+        IP_BURST,
+        // A candidate's vote rate far above its own baseline
+        CANDIDATE_SPIKE,
+        // An election's vote rate far above its own baseline
+        ELECTION_SPIKE
+    }
+
+    private Type type;
+    private Integer electionId;
+    private Integer candidateId;
+    private String clientIp;
+    // Votes in the sliding window when the alert was raised
+    private long votes;
+    private double baseline;
+    private double threshold;
+    private long windowSeconds;
+    private LocalDateTime detectedAt;
+}
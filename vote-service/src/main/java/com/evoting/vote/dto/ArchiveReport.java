@@ -0,0 +1,18 @@
+package com.evoting.vote.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchiveReport {
+    private Integer electionId;
+    private long archivedRows;
+    private long deletedRows;
+    private long archiveBytes;
+    private long elapsedMillis;
+}
@@ -0,0 +1,41 @@
+package com.evoting.vote.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditSample {
+    private Integer electionId;
+    private long seed;
+    private int requestedSize;
+    private long ballotsScanned;
+    // Close watermark the sample was drawn under, null for an archived election
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long watermark;
+    private double riskLimit;
+    // Reported winner from the published results, null when nothing is published
+    private Integer reportedWinnerId;
+    private boolean riskLimitMet;
+    // Draws in order; cut at the draw where the risk limit was met
+    private List<Draw> ballots;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Draw {
+        @JsonSerialize(using = ToStringSerializer.class)
+        private long ballotId;
+        private int candidateId;
+        // Smallest BRAVO test statistic over the losers after this draw
+        private double minRiskRatio;
+    }
+}
@@ -0,0 +1,13 @@
+package com.evoting.vote.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class ImportedBallot {
+    private Integer electionId;
+    private Integer voterId;
+    private Integer candidateId;
+    private LocalDateTime timestamp;
+}
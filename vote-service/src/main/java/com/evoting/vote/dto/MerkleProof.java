@@ -0,0 +1,22 @@
+package com.evoting.vote.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// RFC 6962 audit path: hashing leafHash with each path entry, leaf level first, yields root
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MerkleProof {
+    private Integer electionId;
+    private long leafIndex;
+    private long treeSize;
+    private String leafHash;
+    private List<String> path;
+    private String root;
+}
@@ -0,0 +1,19 @@
+package com.evoting.vote.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Returned with a cast vote: the ballot's leaf hash in its election's Merkle log. The leaf index is only
+// known once the log has read the vote; /merkle/proof?vote= finds it by vote id.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MerkleReceipt {
+    private Integer electionId;
+    @JsonSerialize(using = ToStringSerializer.class)
+    private long voteId;
+    private String leafHash;
+}
@@ -0,0 +1,14 @@
+package com.evoting.vote.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MerkleRoot {
+    private Integer electionId;
+    private long treeSize;
+    private String root;
+}
@@ -0,0 +1,156 @@
+package com.evoting.vote.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Vote counts per candidate as two parallel primitive arrays sorted by candidate id. On the wire
+// it is {"candidates":[..],"counts":[..]}; the Map<Integer, Long> shape stays available through
+// toMap() for the frontend endpoints.
+public final class Tally {
+
+    private static final Tally EMPTY = new Tally(new int[0], new long[0]);
+
+    @JsonProperty("candidates")
+    private final int[] candidateIds;
+
+    @JsonProperty("counts")
+    private final long[] counts;
+
+    private Tally(int[] candidateIds, long[] counts) {
+        this.candidateIds = candidateIds;
+        this.counts = counts;
+    }
+
+    @JsonCreator
+    public static Tally of(@JsonProperty("candidates") int[] candidateIds, @JsonProperty("counts") long[] counts) {
+        if (candidateIds == null || counts == null || candidateIds.length == 0) {
+            return EMPTY;
+        }
+        if (candidateIds.length != counts.length) {
+            throw new IllegalArgumentException("candidates and counts must have the same length");
+        }
+        return sorted(candidateIds.clone(), counts.clone(), candidateIds.length);
+    }
+
+    public static Tally fromMap(Map<Integer, Long> counts) {
+        Builder builder = new Builder(counts.size());
+        counts.forEach((candidateId, count) -> builder.add(candidateId, count));
+        return builder.build();
+    }
+
+    public static Builder builder() {
+        return new Builder(16);
+    }
+
+    public int size() {
+        return candidateIds.length;
+    }
+
+    public int candidateIdAt(int index) {
+        return candidateIds[index];
+    }
+
+    public long countAt(int index) {
+        return counts[index];
+    }
+
+    public long countOf(int candidateId) {
+        int index = Arrays.binarySearch(candidateIds, candidateId);
+        return index < 0 ? 0 : counts[index];
+    }
+
+    public long total() {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    public Map<Integer, Long> toMap() {
+        Map<Integer, Long> map = new LinkedHashMap<>(candidateIds.length * 2);
+        for (int i = 0; i < candidateIds.length; i++) {
+            map.put(candidateIds[i], counts[i]);
+        }
+        return map;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Tally other
+                && Arrays.equals(candidateIds, other.candidateIds)
+                && Arrays.equals(counts, other.counts);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(candidateIds) + Arrays.hashCode(counts);
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+
+    // Takes ownership of the arrays; sorts by candidate id and sums duplicate ids
+    private static Tally sorted(int[] ids, long[] values, int size) {
+        boolean ascending = true;
+        for (int i = 1; i < size && ascending; i++) {
+            ascending = ids[i - 1] < ids[i];
+        }
+        if (ascending) {
+            return new Tally(ids.length == size ? ids : Arrays.copyOf(ids, size),
+                    values.length == size ? values : Arrays.copyOf(values, size));
+        }
+
+        // Sort (id, position) pairs packed into longs; flipping the sign bit keeps negative ids in order
+        long[] order = new long[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = ((long) (ids[i] ^ Integer.MIN_VALUE) << 32) | i;
+        }
+        Arrays.sort(order);
+        int[] sortedIds = new int[size];
+        long[] sortedCounts = new long[size];
+        int n = 0;
+        for (long key : order) {
+            int id = (int) (key >>> 32) ^ Integer.MIN_VALUE;
+            long value = values[(int) key];
+            if (n > 0 && sortedIds[n - 1] == id) {
+                sortedCounts[n - 1] += value;
+            } else {
+                sortedIds[n] = id;
+                sortedCounts[n++] = value;
+            }
+        }
+        return new Tally(Arrays.copyOf(sortedIds, n), Arrays.copyOf(sortedCounts, n));
+    }
+
+    public static final class Builder {
+        private int[] ids;
+        private long[] values;
+        private int size;
+
+        private Builder(int capacity) {
+            this.ids = new int[Math.max(capacity, 1)];
+            this.values = new long[ids.length];
+        }
+
+        public Builder add(int candidateId, long count) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            ids[size] = candidateId;
+            values[size++] = count;
+            return this;
+        }
+
+        public Tally build() {
+            return size == 0 ? EMPTY : sorted(ids, values, size);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.evoting.vote.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TallyReport {
+    private Integer electionId;
+    private Tally tally;
+    private long rowsScanned;
+    private long elapsedMillis;
+    // Set once the election is closed: the tally covers exactly the votes with id <= watermark
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long watermark;
+}
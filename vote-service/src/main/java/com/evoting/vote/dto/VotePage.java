@@ -0,0 +1,19 @@
+package com.evoting.vote.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VotePage {
+    private List<VoteView> items;
+    // Pass back as ?after= to get the next page; null on the last page. A string, like the vote ids.
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long nextCursor;
+}
@@ -2,8 +2,12 @@ package com.evoting.vote.dto;
 
 import lombok.Data;
 
+import java.util.List;
+
 @Data
 public class VoteRequest {
     private Integer electionId;
     private Integer candidateId;
+    // Ranked ballot: candidate ids in order of preference; candidateId is then the first choice
+    private List<Integer> ranking;
 }
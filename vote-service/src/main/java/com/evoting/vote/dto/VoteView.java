@@ -0,0 +1,25 @@
+package com.evoting.vote.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VoteView {
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long id;
+    private Integer electionId;
+    private Integer candidateId;
+    private LocalDateTime timestamp;
+
+    // Ledger storage: the participation record only, the ballot is not linked to the voter
+    public VoteView(Long id, Integer electionId, LocalDateTime timestamp) {
+        this(id, electionId, null, timestamp);
+    }
+}
@@ -0,0 +1,6 @@
+package com.evoting.vote.event;
+
+import com.evoting.vote.model.Vote;
+
+public record VoteCastEvent(Vote vote) {
+}
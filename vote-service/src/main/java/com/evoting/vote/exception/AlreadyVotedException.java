@@ -0,0 +1,11 @@
+package com.evoting.vote.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class AlreadyVotedException extends RuntimeException {
+    public AlreadyVotedException() {
+        super("You have already voted in this election");
+    }
+}
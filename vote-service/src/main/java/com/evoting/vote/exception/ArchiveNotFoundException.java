@@ -0,0 +1,11 @@
+package com.evoting.vote.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class ArchiveNotFoundException extends RuntimeException {
+    public ArchiveNotFoundException(Integer electionId) {
+        super("Election " + electionId + " has no ballot archive");
+    }
+}
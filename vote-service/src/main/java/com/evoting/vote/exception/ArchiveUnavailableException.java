@@ -0,0 +1,12 @@
+package com.evoting.vote.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ArchiveUnavailableException extends RuntimeException {
+    public ArchiveUnavailableException(Integer electionId, String location) {
+        super("The ballot archive of election " + electionId + " is at " + location
+                + ", which this node cannot read");
+    }
+}
@@ -0,0 +1,11 @@
+package com.evoting.vote.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class CandidateNotRunningException extends RuntimeException {
+    public CandidateNotRunningException(Integer candidateId) {
+        super("Candidate " + candidateId + " is not running in this election");
+    }
+}
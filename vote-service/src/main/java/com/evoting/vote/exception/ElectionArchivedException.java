@@ -0,0 +1,11 @@
+package com.evoting.vote.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ElectionArchivedException extends RuntimeException {
+    public ElectionArchivedException() {
+        super("This election is archived and no longer accepts votes");
+    }
+}
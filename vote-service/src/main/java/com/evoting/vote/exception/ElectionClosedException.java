@@ -0,0 +1,11 @@
+package com.evoting.vote.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ElectionClosedException extends RuntimeException {
+    public ElectionClosedException() {
+        super("This election is closed and no longer accepts votes");
+    }
+}
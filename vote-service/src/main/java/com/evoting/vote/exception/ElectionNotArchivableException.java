@@ -0,0 +1,11 @@
+package com.evoting.vote.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ElectionNotArchivableException extends RuntimeException {
+    public ElectionNotArchivableException(Integer electionId) {
+        super("Election " + electionId + " must be closed and ARCHIVED before its ballots are archived");
+    }
+}
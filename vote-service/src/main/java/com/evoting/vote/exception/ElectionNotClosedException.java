@@ -0,0 +1,11 @@
+package com.evoting.vote.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ElectionNotClosedException extends RuntimeException {
+    public ElectionNotClosedException(Integer electionId) {
+        super("Election " + electionId + " has encrypted ballots and can only be tallied once it is closed");
+    }
+}
@@ -0,0 +1,11 @@
+package com.evoting.vote.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ElectionNotOpenException extends RuntimeException {
+    public ElectionNotOpenException() {
+        super("This election is not open for voting");
+    }
+}
@@ -0,0 +1,11 @@
+package com.evoting.vote.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class EligibilityUnavailableException extends RuntimeException {
+    public EligibilityUnavailableException() {
+        super("Voter eligibility is not loaded yet, try again shortly");
+    }
+}
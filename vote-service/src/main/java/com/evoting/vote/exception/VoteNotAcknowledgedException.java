@@ -0,0 +1,14 @@
+package com.evoting.vote.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// The store did not confirm the vote in time but may still record it, so the voter's slot stays claimed
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class VoteNotAcknowledgedException extends RuntimeException {
+    public VoteNotAcknowledgedException(Throwable cause) {
+        super("Your vote was not confirmed in time and may still be recorded; retry with the same "
+                + "Idempotency-Key or check your votes before retrying",
+                cause);
+    }
+}
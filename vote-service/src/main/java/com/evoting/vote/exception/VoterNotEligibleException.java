@@ -0,0 +1,11 @@
+package com.evoting.vote.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.FORBIDDEN)
+public class VoterNotEligibleException extends RuntimeException {
+    public VoterNotEligibleException() {
+        super("Only verified voters can vote");
+    }
+}
@@ -0,0 +1,182 @@
+package com.evoting.vote.merkle;
+
+import com.evoting.vote.archive.BallotArchive;
+import com.evoting.vote.dto.MerkleProof;
+import com.evoting.vote.dto.MerkleReceipt;
+import com.evoting.vote.dto.MerkleRoot;
+import com.evoting.vote.model.Vote;
+import com.evoting.vote.store.VoteCommitListener;
+import com.evoting.vote.store.VoteIdGenerator;
+import com.evoting.vote.store.VoteStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// One Merkle log per election with ballots as leaves in id order. The log is read from the stored vote
+// sequence rather than fed by local commits, so every replica builds the same tree: it only grows up to
+// the checkpoint lag horizon, below which every vote is committed or failed on every replica, and up to
+// the watermark when the election is closed. Archived elections are rebuilt from the columnar archive.
+// Receipts carry the leaf hash and vote id at cast time; the leaf index follows once the log reaches it.
+@Service
+@Slf4j
+public class MerkleLogService implements VoteCommitListener {
+
+    private static final byte LEAF_PREFIX = 0x00;
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final BallotArchive ballotArchive;
+    // The store depends on this listener, so it is looked up on first use
+    private final ObjectProvider<VoteStore> voteStore;
+    // Mixed into every leaf so receipts cannot be matched to ballots by hashing candidate guesses
+    private final byte[] leafKey;
+    private final long lagMillis;
+    private final Map<Integer, ElectionLog> logs = new ConcurrentHashMap<>();
+    private final ThreadLocal<MessageDigest> digests = ThreadLocal.withInitial(MerkleTree::sha256);
+
+    public MerkleLogService(BallotArchive ballotArchive,
+            ObjectProvider<VoteStore> voteStore,
+            @Value("${vote.merkle.leaf-key:}") String leafKey,
+            @Value("${vote.fence.checkpoint-lag-ms:60000}") long lagMillis) {
+        if (leafKey.isEmpty()) {
+            throw new IllegalStateException("vote.merkle.leaf-key (VOTE_MERKLE_LEAF_KEY) must be set: without it "
+                    + "a receipt can be matched to its candidate by hashing every guess");
+        }
+        this.ballotArchive = ballotArchive;
+        this.voteStore = voteStore;
+        this.leafKey = leafKey.getBytes(StandardCharsets.UTF_8);
+        this.lagMillis = lagMillis;
+    }
+
+    @Override
+    public void onCommitted(Vote vote) {
+        // Encrypted ballots commit to candidate 0, the same value the stores read back for them
+        int candidateId = vote.getCandidateId() != null ? vote.getCandidateId() : 0;
+        byte[] leaf = leafHash(vote.getId(), vote.getElectionId(), vote.getVoterId(), candidateId);
+        vote.setReceipt(new MerkleReceipt(vote.getElectionId(), vote.getId(), HEX.formatHex(leaf)));
+    }
+
+    public MerkleRoot getRoot(Integer electionId) {
+        return root(electionId, horizon());
+    }
+
+    // Root over exactly the votes up to a close watermark. Called in the close transaction, after the fence
+    // row is in, so every vote below the watermark is already committed.
+    public MerkleRoot getRoot(Integer electionId, long watermark) {
+        return root(electionId, watermark);
+    }
+
+    // treeSize pins the proof to an earlier root, e.g. the one published at close; defaults to now
+    public MerkleProof getProof(Integer electionId, long leafIndex, Long treeSize) {
+        ElectionLog electionLog = electionLog(electionId);
+        synchronized (electionLog) {
+            sync(electionLog, electionId, horizon());
+            long size = treeSize != null ? treeSize : electionLog.tree.size();
+            List<String> path = electionLog.tree.proof(leafIndex, size).stream().map(HEX::formatHex).toList();
+            return MerkleProof.builder()
+                    .electionId(electionId)
+                    .leafIndex(leafIndex)
+                    .treeSize(size)
+                    .leafHash(HEX.formatHex(electionLog.tree.leaf(leafIndex)))
+                    .path(path)
+                    .root(HEX.formatHex(electionLog.tree.root(size)))
+                    .build();
+        }
+    }
+
+    // Proof for the vote id on a receipt
+    public MerkleProof getProofForVote(Integer electionId, long voteId, Long treeSize) {
+        ElectionLog electionLog = electionLog(electionId);
+        long leafIndex;
+        synchronized (electionLog) {
+            sync(electionLog, electionId, horizon());
+            leafIndex = Arrays.binarySearch(electionLog.voteIds, 0, (int) electionLog.tree.size(), voteId);
+        }
+        if (leafIndex < 0) {
+            throw new RuntimeException("Vote " + voteId + " is not in the Merkle log of election " + electionId
+                    + " yet; it is added within " + lagMillis / 1000 + " seconds of being cast");
+        }
+        return getProof(electionId, leafIndex, treeSize);
+    }
+
+    private MerkleRoot root(Integer electionId, long upToId) {
+        ElectionLog electionLog = electionLog(electionId);
+        synchronized (electionLog) {
+            sync(electionLog, electionId, upToId);
+            long size = electionLog.tree.size();
+            return new MerkleRoot(electionId, size, HEX.formatHex(electionLog.tree.root(size)));
+        }
+    }
+
+    private long horizon() {
+        return VoteIdGenerator.floorId(System.currentTimeMillis() - lagMillis) - 1;
+    }
+
+    // Appends the stored votes between the last sync and upToId, in id order
+    private void sync(ElectionLog electionLog, Integer electionId, long upToId) {
+        if (upToId <= electionLog.syncedUpTo) {
+            return;
+        }
+        voteStore.getObject().scanElection(electionId, electionLog.syncedUpTo, upToId,
+                (id, election, voterId, candidateId, timestampMillis) ->
+                        electionLog.append(id, leafHash(id, election, voterId, candidateId)));
+        electionLog.syncedUpTo = upToId;
+    }
+
+    // A log read from the store before its election was archived is rebuilt from the archive: the archived
+    // votes are purged from the store
+    private ElectionLog electionLog(int electionId) {
+        ElectionLog cached = logs.get(electionId);
+        if (cached != null && (cached.syncedUpTo == Long.MAX_VALUE || ballotArchive.index(electionId) == null)) {
+            return cached;
+        }
+        return logs.compute(electionId, (id, previous) -> {
+            if (previous != null && previous != cached) {
+                return previous;
+            }
+            ElectionLog electionLog = new ElectionLog();
+            if (ballotArchive.index(id) != null) {
+                ballotArchive.scan(id, (voteId, election, voterId, candidateId, timestampMillis) ->
+                        electionLog.append(voteId, leafHash(voteId, election, voterId, candidateId)));
+                electionLog.syncedUpTo = Long.MAX_VALUE;
+                log.info("Rebuilt Merkle log of archived election {} with {} leaves", id,
+                        electionLog.tree.size());
+            }
+            return electionLog;
+        });
+    }
+
+    private byte[] leafHash(long id, int electionId, int voterId, int candidateId) {
+        MessageDigest digest = digests.get();
+        digest.update(LEAF_PREFIX);
+        digest.update(leafKey);
+        digest.update(ByteBuffer.allocate(20).putLong(id).putInt(electionId).putInt(voterId).putInt(candidateId)
+                .array());
+        return digest.digest();
+    }
+
+    // Tree plus the vote id of every leaf, in leaf order, and how far the stored sequence has been read
+    private static final class ElectionLog {
+
+        private final MerkleTree tree = new MerkleTree();
+        private long[] voteIds = new long[1024];
+        private long syncedUpTo;
+
+        void append(long voteId, byte[] leafHash) {
+            long index = tree.append(leafHash);
+            if (index == voteIds.length) {
+                voteIds = Arrays.copyOf(voteIds, voteIds.length * 2);
+            }
+            voteIds[(int) index] = voteId;
+        }
+    }
+}
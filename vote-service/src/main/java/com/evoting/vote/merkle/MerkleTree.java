@@ -0,0 +1,144 @@
+package com.evoting.vote.merkle;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Append-only RFC 6962 Merkle tree. Level k keeps the hash of every complete subtree of 2^k leaves,
+// packed 32 bytes apart in one array, so an append hashes one parent node amortized and a proof or
+// root reads O(log n) stored nodes, recomputing at most the ragged right edge.
+public class MerkleTree {
+
+    static final int HASH_BYTES = 32;
+    private static final byte NODE_PREFIX = 0x01;
+
+    private final List<Level> levels = new ArrayList<>();
+    private final MessageDigest digest;
+    private long size;
+
+    public MerkleTree() {
+        digest = sha256();
+        levels.add(new Level());
+    }
+
+    public synchronized long size() {
+        return size;
+    }
+
+    // Returns the leaf index
+    public synchronized long append(byte[] leafHash) {
+        levels.get(0).add(leafHash);
+        for (int k = 0; levels.get(k).count % 2 == 0; k++) {
+            if (k + 1 == levels.size()) {
+                levels.add(new Level());
+            }
+            Level level = levels.get(k);
+            levels.get(k + 1).add(node(level, level.count - 2, level, level.count - 1));
+        }
+        return size++;
+    }
+
+    public synchronized byte[] leaf(long index) {
+        checkRange(index, size);
+        return levels.get(0).get((int) index);
+    }
+
+    public synchronized byte[] root(long treeSize) {
+        checkSize(treeSize);
+        if (treeSize == 0) {
+            return digest.digest();
+        }
+        return subtree(0, treeSize);
+    }
+
+    // Audit path of leaf `index` in the tree made of the first `treeSize` leaves, leaf level first
+    public synchronized List<byte[]> proof(long index, long treeSize) {
+        checkSize(treeSize);
+        checkRange(index, treeSize);
+        List<byte[]> path = new ArrayList<>();
+        path(index, 0, treeSize, path);
+        return path;
+    }
+
+    private void path(long index, long start, long count, List<byte[]> path) {
+        if (count == 1) {
+            return;
+        }
+        long split = Long.highestOneBit(count - 1);
+        if (index < start + split) {
+            path(index, start, split, path);
+            path.add(subtree(start + split, count - split));
+        } else {
+            path(index, start + split, count - split, path);
+            path.add(subtree(start, split));
+        }
+    }
+
+    // MTH(D[start:start+count]); start is always a multiple of the largest power of two <= count
+    private byte[] subtree(long start, long count) {
+        if (Long.bitCount(count) == 1) {
+            int k = Long.numberOfTrailingZeros(count);
+            return levels.get(k).get((int) (start >>> k));
+        }
+        long split = Long.highestOneBit(count - 1);
+        return node(subtree(start, split), subtree(start + split, count - split));
+    }
+
+    private byte[] node(Level left, int leftIndex, Level right, int rightIndex) {
+        digest.update(NODE_PREFIX);
+        digest.update(left.data, leftIndex * HASH_BYTES, HASH_BYTES);
+        digest.update(right.data, rightIndex * HASH_BYTES, HASH_BYTES);
+        return digest.digest();
+    }
+
+    private byte[] node(byte[] left, byte[] right) {
+        digest.update(NODE_PREFIX);
+        digest.update(left);
+        digest.update(right);
+        return digest.digest();
+    }
+
+    private void checkSize(long treeSize) {
+        if (treeSize < 0 || treeSize > size) {
+            throw new IllegalArgumentException("Tree size must be between 0 and " + size);
+        }
+    }
+
+    private static void checkRange(long index, long treeSize) {
+        if (index < 0 || index >= treeSize) {
+            throw new IllegalArgumentException("Leaf " + index + " is not in a tree of " + treeSize + " leaves");
+        }
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Level {
+        private static final int MAX_NODES = Integer.MAX_VALUE / HASH_BYTES;
+
+        private byte[] data = new byte[64 * HASH_BYTES];
+        private int count;
+
+        void add(byte[] hash) {
+            if ((count + 1) * HASH_BYTES > data.length) {
+                if (count == MAX_NODES) {
+                    throw new IllegalStateException("Merkle tree is full");
+                }
+                data = Arrays.copyOf(data, (int) Math.min((long) data.length * 2, (long) MAX_NODES * HASH_BYTES));
+            }
+            System.arraycopy(hash, 0, data, count * HASH_BYTES, HASH_BYTES);
+            count++;
+        }
+
+        byte[] get(int index) {
+            return Arrays.copyOfRange(data, index * HASH_BYTES, (index + 1) * HASH_BYTES);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.evoting.vote.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Ledger storage: an anonymous ballot. Ballots reach this table from ballot_pool in shuffled batches of at
+// least vote.ledger.min-anonymity-set, in their own transaction, with random ids: neither id, insert order
+// nor batchId points back to a voter.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "ballot_box", indexes = {
+        @Index(name = "idx_ballot_box_election_candidate", columnList = "election_id, candidate_id, batch_id"),
+        @Index(name = "idx_ballot_box_election_batch", columnList = "election_id, batch_id")
+})
+public class Ballot {
+
+    // Assigned by LedgerVoteStore
+    @Id
+    private Long id;
+
+    private Integer electionId;
+
+    private Integer candidateId;
+
+    private Long batchId;
+
+    // Packed preferences of a ranked ballot, as on Vote
+    @Column(length = 255)
+    private byte[] ranking;
+}
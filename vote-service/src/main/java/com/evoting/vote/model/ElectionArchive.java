@@ -0,0 +1,31 @@
+package com.evoting.vote.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Where an archived election's column files live. Written before its vote rows are deleted, so
+// every replica knows the election is archived even when it cannot read the files.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "election_archive")
+public class ElectionArchive {
+
+    @Id
+    private Integer electionId;
+
+    private String location;
+
+    private Long ballots;
+
+    private Long maxId;
+
+    private LocalDateTime archivedAt;
+}
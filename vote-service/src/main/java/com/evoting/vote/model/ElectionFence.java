@@ -0,0 +1,35 @@
+package com.evoting.vote.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Recorded when an election is closed: no vote is accepted afterwards and the final tally counts
+// exactly the votes with id <= watermark
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "election_fence")
+public class ElectionFence {
+
+    @Id
+    private Integer electionId;
+
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long watermark;
+
+    // Merkle root over the ballots at close, for receipts to be checked against
+    private Long merkleTreeSize;
+
+    private String merkleRoot;
+
+    private LocalDateTime closedAt;
+}
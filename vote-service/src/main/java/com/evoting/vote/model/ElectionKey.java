@@ -0,0 +1,39 @@
+package com.evoting.vote.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+// ElGamal key pair of an election with encrypted ballots. The secret key is only stored wrapped under
+// vote.encryption.master-key, which is not in the database. candidates fixes the one-hot slot order
+// (sorted ids, comma separated) for the lifetime of the election.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@EntityListeners(AuditingEntityListener.class)
+@Table(name = "election_key")
+public class ElectionKey {
+
+    @Id
+    private Integer electionId;
+
+    @Lob
+    private byte[] publicKey;
+
+    @Lob
+    private byte[] wrappedSecretKey;
+
+    @Column(columnDefinition = "TEXT")
+    private String candidates;
+
+    @CreatedDate
+    private LocalDateTime createdAt;
+}
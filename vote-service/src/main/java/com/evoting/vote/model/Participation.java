@@ -0,0 +1,33 @@
+package com.evoting.vote.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Ledger storage: who voted in which election, with no trace of the choice
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "participation", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_participation_election_voter", columnNames = { "election_id", "voter_id" })
+}, indexes = {
+        @Index(name = "idx_participation_voter", columnList = "voter_id, id")
+})
+public class Participation {
+
+    // Same id VoteIdGenerator assigned to the vote
+    @Id
+    private Long id;
+
+    private Integer electionId;
+
+    private Integer voterId;
+
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,31 @@
+package com.evoting.vote.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Ledger storage: a ballot waiting for its election's anonymity set. Written with the participation record,
+// so its content is sealed under vote.ledger.pool-key, which is not in the database; it has a random id and
+// no timestamp. Moved into ballot_box, opened and shuffled, once enough are pooled.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "ballot_pool", indexes = {
+        @Index(name = "idx_ballot_pool_election", columnList = "election_id")
+})
+public class PooledBallot {
+
+    // Assigned by LedgerVoteStore
+    @Id
+    private Long id;
+
+    private Integer electionId;
+
+    // Fixed-size plaintext (candidate, padded ranking), so ranked ballots are not told apart by length
+    @Column(length = 512)
+    private byte[] sealed;
+}
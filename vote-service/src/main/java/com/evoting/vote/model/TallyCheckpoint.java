@@ -0,0 +1,30 @@
+package com.evoting.vote.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Counts of an election's votes with id <= upToId; a re-tally only scans the votes after it
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "tally_checkpoint")
+public class TallyCheckpoint {
+
+    @Id
+    private Integer electionId;
+
+    private Long upToId;
+
+    // Tally as JSON: {"candidates":[..],"counts":[..]}
+    @Column(columnDefinition = "TEXT")
+    private String tally;
+
+    private LocalDateTime updatedAt;
+}
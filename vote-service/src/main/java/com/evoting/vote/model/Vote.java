@@ -1,5 +1,9 @@
 package com.evoting.vote.model;
 
+import com.evoting.vote.dto.MerkleReceipt;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -16,12 +20,19 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Entity
 @EntityListeners(AuditingEntityListener.class)
-@Table(name = "vote")
+@Table(name = "vote", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_vote_election_voter", columnNames = { "election_id", "voter_id" })
+}, indexes = {
+        @Index(name = "idx_vote_election_candidate", columnList = "election_id, candidate_id"),
+        @Index(name = "idx_vote_voter", columnList = "voter_id, id")
+})
 public class Vote {
 
+    // Assigned by VoteIdGenerator so inserts can be batched. Written as a JSON string: the ids are above
+    // 2^53, where JavaScript numbers lose digits; the same goes for every vote id and watermark on the API.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Integer id;
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long id;
 
     private Integer electionId;
 
@@ -31,4 +42,18 @@ public class Vote {
 
     @CreatedDate
     private LocalDateTime timestamp;
+
+    // ElGamal ciphertexts for elections with encrypted ballots, candidateId is then null
+    @Lob
+    @JsonIgnore
+    private byte[] ballot;
+
+    // Ranked ballot: one byte per preference, each an index into the election's sorted candidate ids
+    @Column(length = 255)
+    @JsonIgnore
+    private byte[] ranking;
+
+    // Set when the vote is appended to its election's Merkle log; not stored
+    @Transient
+    private MerkleReceipt receipt;
 }
@@ -0,0 +1,226 @@
+package com.evoting.vote.reactive;
+
+import com.evoting.vote.anomaly.VoteAnomalyDetector;
+import com.evoting.vote.archive.ArchiveService;
+import com.evoting.vote.archive.BallotArchive;
+import com.evoting.vote.client.ElectionClient;
+import com.evoting.vote.dto.AnomalyAlert;
+import com.evoting.vote.dto.ArchiveReport;
+import com.evoting.vote.dto.AuditSample;
+import com.evoting.vote.dto.ImportReport;
+import com.evoting.vote.dto.MerkleProof;
+import com.evoting.vote.dto.MerkleRoot;
+import com.evoting.vote.dto.Tally;
+import com.evoting.vote.dto.TallyReport;
+import com.evoting.vote.dto.TurnoutSeries;
+import com.evoting.vote.dto.VotePage;
+import com.evoting.vote.dto.VoteRequest;
+import com.evoting.vote.merkle.MerkleLogService;
+import com.evoting.vote.model.ElectionFence;
+import com.evoting.vote.model.Vote;
+import com.evoting.vote.service.AuditService;
+import com.evoting.vote.service.BallotImportService;
+import com.evoting.vote.service.ElectionCatalog;
+import com.evoting.vote.service.ElectionFenceService;
+import com.evoting.vote.service.EligibilityService;
+import com.evoting.vote.service.IdempotencyService;
+import com.evoting.vote.service.LiveTallyService;
+import com.evoting.vote.service.RankedBallotService;
+import com.evoting.vote.service.TurnoutService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+
+// Same REST contract as VoteController for the reactive runtime. castVote, my-votes and the tallies
+// run on R2DBC; in-memory reads answer inline and the remaining blocking work (close, archive, import)
+// is moved to the bounded elastic scheduler.
+@RestController
+@RequestMapping("/vote")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveVoteController {
+
+    private final ReactiveVoteService service;
+    private final LiveTallyService liveTallyService;
+    private final BallotImportService importService;
+    private final TurnoutService turnoutService;
+    private final IdempotencyService idempotencyService;
+    private final ArchiveService archiveService;
+    private final BallotArchive ballotArchive;
+    private final MerkleLogService merkleLogService;
+    private final ElectionFenceService electionFenceService;
+    private final RankedBallotService rankedBallotService;
+    private final VoteAnomalyDetector anomalyDetector;
+    private final AuditService auditService;
+    private final EligibilityService eligibilityService;
+    private final ElectionCatalog electionCatalog;
+
+    @PostMapping
+    public Mono<ResponseEntity<Vote>> castVote(@RequestHeader("X-User-Id") Integer userId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestHeader(value = "X-Forwarded-For", required = false) String forwardedFor,
+            @RequestBody VoteRequest request,
+            ServerHttpRequest httpRequest) {
+        Integer voterId = userId != null ? userId : 999; // Fallback dev
+        InetSocketAddress remote = httpRequest.getRemoteAddress();
+        String clientIp = anomalyDetector.clientIp(forwardedFor,
+                remote != null && remote.getAddress() != null ? remote.getAddress().getHostAddress() : null);
+        Mono<Vote> vote = idempotencyKey == null
+                ? service.castVote(voterId, request, clientIp)
+                : idempotencyService.executeReactive(voterId, idempotencyKey, request,
+                        () -> service.castVote(voterId, request, clientIp));
+        return vote.map(ResponseEntity::ok);
+    }
+
+    @PutMapping("/elections/{electionId}")
+    public ResponseEntity<?> updateElection(@PathVariable Integer electionId,
+            @RequestBody ElectionClient.ElectionDto election) {
+        election.setId(electionId);
+        electionCatalog.update(election);
+        return ResponseEntity.ok().build();
+    }
+
+    @PutMapping("/eligibility/{userId}")
+    public ResponseEntity<?> updateEligibility(@PathVariable Integer userId, @RequestParam boolean eligible) {
+        eligibilityService.update(userId, eligible);
+        return ResponseEntity.ok().build();
+    }
+
+    @GetMapping("/anomalies")
+    public ResponseEntity<List<AnomalyAlert>> getAnomalies(@RequestParam(required = false) Integer electionId) {
+        return ResponseEntity.ok(anomalyDetector.getAlerts(electionId));
+    }
+
+    @GetMapping("/my-votes")
+    public Mono<ResponseEntity<VotePage>> getMyVotes(@RequestHeader("X-User-Id") Integer userId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        return service.getVotes(userId != null ? userId : 999, after, limit).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{electionId}/tally")
+    public Mono<ResponseEntity<Map<Integer, Long>>> getTally(@PathVariable Integer electionId) {
+        return service.compactTally(electionId).map(tally -> ResponseEntity.ok(tally.toMap()));
+    }
+
+    @GetMapping("/{electionId}/tally/compact")
+    public Mono<ResponseEntity<Tally>> getCompactTally(@PathVariable Integer electionId) {
+        return service.compactTally(electionId).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{electionId}/tally/report")
+    public Mono<ResponseEntity<TallyReport>> getTallyReport(@PathVariable Integer electionId) {
+        return service.tallyReport(electionId).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{electionId}/live-tally")
+    public ResponseEntity<Map<Integer, Long>> getLiveTally(@PathVariable Integer electionId) {
+        return ResponseEntity.ok(liveTallyService.getLiveTally(electionId));
+    }
+
+    @GetMapping("/{electionId}/turnout")
+    public ResponseEntity<TurnoutSeries> getTurnout(@PathVariable Integer electionId,
+            @RequestParam(defaultValue = "MINUTE") TurnoutService.Resolution resolution,
+            @RequestParam(defaultValue = "60") int points) {
+        return ResponseEntity.ok(turnoutService.getTurnout(electionId, resolution, points));
+    }
+
+    // The log catches up with the vote store on read
+    @GetMapping("/{electionId}/merkle/root")
+    public Mono<ResponseEntity<MerkleRoot>> getMerkleRoot(@PathVariable Integer electionId) {
+        return Mono.fromCallable(() -> ResponseEntity.ok(merkleLogService.getRoot(electionId)))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @GetMapping("/{electionId}/merkle/proof")
+    public Mono<ResponseEntity<MerkleProof>> getMerkleProof(@PathVariable Integer electionId,
+            @RequestParam(required = false) Long leaf,
+            @RequestParam(required = false) Long vote,
+            @RequestParam(required = false) Long treeSize) {
+        if (leaf == null && vote == null) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return Mono.fromCallable(() -> ResponseEntity.ok(leaf != null
+                        ? merkleLogService.getProof(electionId, leaf, treeSize)
+                        : merkleLogService.getProofForVote(electionId, vote, treeSize)))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // The export writes to an OutputStream on a worker thread and is relayed as data buffers
+    @GetMapping(value = "/{electionId}/ballots/ranked", produces = "application/octet-stream")
+    public Flux<DataBuffer> getRankedBallots(@PathVariable Integer electionId) {
+        return DataBufferUtils.outputStreamPublisher(output -> rankedBallotService.export(electionId, output),
+                DefaultDataBufferFactory.sharedInstance, task -> Schedulers.boundedElastic().schedule(task));
+    }
+
+    @GetMapping("/{electionId}/audit/sample")
+    public Mono<ResponseEntity<AuditSample>> getAuditSample(@PathVariable Integer electionId,
+            @RequestParam int size,
+            @RequestParam long seed,
+            @RequestParam(required = false) Double riskLimit) {
+        return Mono.fromCallable(() -> ResponseEntity.ok(auditService.sample(electionId, size, seed, riskLimit)))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @PostMapping("/{electionId}/close")
+    public Mono<ResponseEntity<ElectionFence>> closeElection(@PathVariable Integer electionId) {
+        return Mono.fromCallable(() -> ResponseEntity.ok(electionFenceService.close(electionId)))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @PostMapping("/{electionId}/archive")
+    public Mono<ResponseEntity<ArchiveReport>> archiveElection(@PathVariable Integer electionId) {
+        return Mono.fromCallable(() -> ResponseEntity.ok(archiveService.archive(electionId)))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @GetMapping("/{electionId}/archive/tally")
+    public Mono<ResponseEntity<TallyReport>> getArchiveTally(@PathVariable Integer electionId) {
+        return Mono.fromCallable(() -> ResponseEntity.ok(ballotArchive.tally(electionId)))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // The importer reads an InputStream, so the request body is piped into one on a worker thread
+    @PostMapping(value = "/import", consumes = { "text/csv", "application/x-ndjson", "text/plain" })
+    public Mono<ResponseEntity<ImportReport>> importBallots(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestBody Flux<DataBuffer> body) {
+        BallotImportService.Format format = contentType.contains("ndjson")
+                ? BallotImportService.Format.NDJSON
+                : BallotImportService.Format.CSV;
+        return Mono.fromCallable(() -> {
+            try (PipedInputStream input = new PipedInputStream(1 << 16);
+                 PipedOutputStream output = new PipedOutputStream(input)) {
+                DataBufferUtils.write(body, output)
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .doFinally(signal -> closeQuietly(output))
+                        .subscribe(DataBufferUtils.releaseConsumer());
+                return ResponseEntity.ok(importService.importBallots(input, format));
+            }
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static void closeQuietly(PipedOutputStream output) {
+        try {
+            output.close();
+        } catch (IOException ignored) {
+            // reader side already gone
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.evoting.vote.reactive;
+
+import com.evoting.vote.anomaly.VoteAnomalyDetector;
+import com.evoting.vote.archive.BallotArchive;
+import com.evoting.vote.dto.Tally;
+import com.evoting.vote.dto.TallyReport;
+import com.evoting.vote.dto.VotePage;
+import com.evoting.vote.dto.VoteRequest;
+import com.evoting.vote.dto.VoteView;
+import com.evoting.vote.event.VoteCastEvent;
+import com.evoting.vote.exception.AlreadyVotedException;
+import com.evoting.vote.exception.ElectionArchivedException;
+import com.evoting.vote.exception.VoteNotAcknowledgedException;
+import com.evoting.vote.model.ElectionFence;
+import com.evoting.vote.model.Vote;
+import com.evoting.vote.service.BallotEncryptionService;
+import com.evoting.vote.service.ElectionCatalog;
+import com.evoting.vote.service.ElectionFenceService;
+import com.evoting.vote.service.EligibilityService;
+import com.evoting.vote.service.RankedBallotService;
+import com.evoting.vote.service.VoterBitmapIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// VoteService and MyVotesService for the reactive runtime: same checks and double-vote semantics,
+// with the database work on R2DBC instead of a request thread
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Slf4j
+public class ReactiveVoteService {
+
+    private final ReactiveVoteStore voteStore;
+    private final VoterBitmapIndex voterBitmapIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BallotArchive ballotArchive;
+    private final BallotEncryptionService ballotEncryption;
+    private final ElectionFenceService electionFence;
+    private final RankedBallotService rankedBallots;
+    private final VoteAnomalyDetector anomalyDetector;
+    private final EligibilityService eligibility;
+    private final ElectionCatalog electionCatalog;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public ReactiveVoteService(ReactiveVoteStore voteStore,
+            VoterBitmapIndex voterBitmapIndex,
+            ApplicationEventPublisher eventPublisher,
+            BallotArchive ballotArchive,
+            BallotEncryptionService ballotEncryption,
+            ElectionFenceService electionFence,
+            RankedBallotService rankedBallots,
+            VoteAnomalyDetector anomalyDetector,
+            EligibilityService eligibility,
+            ElectionCatalog electionCatalog,
+            @Value("${vote.my-votes.page-size:20}") int defaultPageSize,
+            @Value("${vote.my-votes.max-page-size:100}") int maxPageSize) {
+        this.voteStore = voteStore;
+        this.voterBitmapIndex = voterBitmapIndex;
+        this.eventPublisher = eventPublisher;
+        this.ballotArchive = ballotArchive;
+        this.ballotEncryption = ballotEncryption;
+        this.electionFence = electionFence;
+        this.rankedBallots = rankedBallots;
+        this.anomalyDetector = anomalyDetector;
+        this.eligibility = eligibility;
+        this.electionCatalog = electionCatalog;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    public Mono<Vote> castVote(Integer voterId, VoteRequest request, String clientIp) {
+        return Mono.defer(() -> {
+            if (request.getElectionId() == null || (request.getCandidateId() == null
+                    && (request.getRanking() == null || request.getRanking().isEmpty()))) {
+                return Mono.error(new RuntimeException("Election and candidate (or ranking) are required"));
+            }
+            if (ballotArchive.isSealed(request.getElectionId())) {
+                return Mono.error(new ElectionArchivedException());
+            }
+            eligibility.check(voterId);
+            // Admitted casts are waited for when the election is closed
+            electionFence.enter(request.getElectionId());
+            if (!voterBitmapIndex.claim(request.getElectionId(), voterId)) {
+                electionFence.exit(request.getElectionId());
+                return Mono.error(new AlreadyVotedException());
+            }
+
+            Vote vote = Vote.builder()
+                    .electionId(request.getElectionId())
+                    .voterId(voterId)
+                    .candidateId(request.getCandidateId())
+                    .build();
+            // Set once, by whichever comes first: the hand-off to the store, or a failure or cancel before it,
+            // which gives the claim and the fence back
+            AtomicBoolean settled = new AtomicBoolean();
+            // Validation and encryption may call election-service and encryption is CPU bound, so they stay
+            // off the event loop
+            return Mono.fromCallable(() -> {
+                        electionCatalog.validate(request.getElectionId(), request.getCandidateId());
+                        return ballotEncryption.seal(rankedBallots.rank(vote, request.getRanking()));
+                    })
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .flatMap(sealed -> settled.compareAndSet(false, true)
+                            ? Mono.fromFuture(append(sealed, clientIp), true)
+                            : Mono.empty())
+                    .doOnError(e -> {
+                        if (settled.compareAndSet(false, true)) {
+                            abandon(request.getElectionId(), voterId);
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (settled.compareAndSet(false, true)) {
+                            abandon(request.getElectionId(), voterId);
+                        }
+                    });
+        });
+    }
+
+    // Runs to the end whether or not the caller is still there: a write cancelled half way could still
+    // commit, so the claim and the fence are only given up once its outcome is known
+    private CompletableFuture<Vote> append(Vote vote, String clientIp) {
+        return voteStore.append(vote)
+                .doOnError(e -> !(e instanceof AlreadyVotedException || e instanceof VoteNotAcknowledgedException),
+                        e -> voterBitmapIndex.release(vote.getElectionId(), vote.getVoterId()))
+                .doOnNext(saved -> {
+                    eventPublisher.publishEvent(new VoteCastEvent(saved));
+                    anomalyDetector.record(saved, clientIp);
+                })
+                .doFinally(signal -> electionFence.exit(vote.getElectionId()))
+                .toFuture();
+    }
+
+    private void abandon(Integer electionId, Integer voterId) {
+        voterBitmapIndex.release(electionId, voterId);
+        electionFence.exit(electionId);
+    }
+
+    public Mono<VotePage> getVotes(Integer voterId, Long after, Integer limit) {
+        int size = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        return voteStore.findVoterVotesAfter(voterId, after == null ? 0L : after, size + 1)
+                .collectList()
+                .map(rows -> {
+                    if (rows.size() <= size) {
+                        return new VotePage(rows, null);
+                    }
+                    List<VoteView> items = List.copyOf(rows.subList(0, size));
+                    return new VotePage(items, items.get(size - 1).getId());
+                });
+    }
+
+    public Mono<TallyReport> tallyReport(Integer electionId) {
+        if (ballotArchive.isArchived(electionId)) {
+            return Mono.fromCallable(() -> ballotArchive.tally(electionId)).subscribeOn(Schedulers.boundedElastic());
+        }
+        // Encrypted and closed elections are counted on JDBC, exactly up to their fence watermark (open
+        // encrypted ones are refused); an empty result means an open plaintext election
+        return Mono.fromCallable(() -> {
+                    ElectionFence fence = electionFence.fence(electionId);
+                    if (ballotEncryption.isEncrypted(electionId)) {
+                        return ballotEncryption.tally(electionId, fence);
+                    }
+                    return fence != null ? electionFence.tally(electionId, fence) : null;
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .switchIfEmpty(Mono.defer(() -> plaintextTally(electionId)));
+    }
+
+    private Mono<TallyReport> plaintextTally(Integer electionId) {
+        long start = System.nanoTime();
+        return voteStore.tally(electionId).map(tally -> {
+            TallyReport report = TallyReport.builder()
+                    .electionId(electionId)
+                    .tally(tally)
+                    .rowsScanned(tally.total())
+                    .elapsedMillis((System.nanoTime() - start) / 1_000_000)
+                    .build();
+            log.info("Tallied election {}: {} candidates, {} records scanned in {} ms",
+                    electionId, tally.size(), report.getRowsScanned(), report.getElapsedMillis());
+            return report;
+        });
+    }
+
+    public Mono<Tally> compactTally(Integer electionId) {
+        return tallyReport(electionId).map(TallyReport::getTally);
+    }
+}
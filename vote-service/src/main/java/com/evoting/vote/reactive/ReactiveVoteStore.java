@@ -0,0 +1,263 @@
+package com.evoting.vote.reactive;
+
+import com.evoting.vote.dto.Tally;
+import com.evoting.vote.dto.VoteView;
+import com.evoting.vote.exception.AlreadyVotedException;
+import com.evoting.vote.exception.VoteNotAcknowledgedException;
+import com.evoting.vote.exception.ElectionClosedException;
+import com.evoting.vote.model.Vote;
+import com.evoting.vote.store.VoteCommitListener;
+import com.evoting.vote.store.VoteIdGenerator;
+import io.r2dbc.spi.Statement;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeoutException;
+
+// Non-blocking counterpart of JdbcVoteStore on R2DBC. Casts are gathered into micro-batches by one
+// ordered pipeline (bufferTimeout + concatMap), so ids, commits and commit listeners follow the same
+// order as in the group-commit writer without parking a thread per waiting voter.
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Slf4j
+public class ReactiveVoteStore {
+
+    private static final String INSERT_SQL =
+            "insert into vote (id, election_id, voter_id, candidate_id, timestamp, ballot, ranking) "
+                    + "values (?, ?, ?, ?, ?, ?, ?)";
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final VoteIdGenerator idGenerator;
+    private final List<VoteCommitListener> commitListeners;
+    private final int maxBatchSize;
+    private final Duration maxWait;
+    private final Duration ackTimeout;
+    private final Sinks.Many<PendingVote> sink;
+
+    private Disposable pipeline;
+
+    public ReactiveVoteStore(DatabaseClient databaseClient,
+            TransactionalOperator transactionalOperator,
+            VoteIdGenerator idGenerator,
+            List<VoteCommitListener> commitListeners,
+            @Value("${vote.group-commit.max-batch-size:256}") int maxBatchSize,
+            @Value("${vote.group-commit.max-wait-ms:5}") long maxWaitMillis,
+            @Value("${vote.group-commit.queue-capacity:10000}") int queueCapacity,
+            @Value("${vote.group-commit.ack-timeout-ms:10000}") long ackTimeoutMillis,
+            @Value("${vote.storage.mode:jdbc}") String storageMode) {
+        if (!"jdbc".equals(storageMode)) {
+            throw new IllegalStateException("The reactive runtime writes the vote table directly, "
+                    + "vote.storage.mode must be jdbc");
+        }
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = transactionalOperator;
+        this.idGenerator = idGenerator;
+        this.commitListeners = commitListeners;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWait = Duration.ofMillis(maxWaitMillis);
+        this.ackTimeout = Duration.ofMillis(ackTimeoutMillis);
+        this.sink = Sinks.many().unicast().onBackpressureBuffer(Queues.<PendingVote>get(queueCapacity).get());
+    }
+
+    @PostConstruct
+    public void start() {
+        pipeline = sink.asFlux()
+                .bufferTimeout(maxBatchSize, maxWait)
+                .concatMap(batch -> flush(batch).onErrorResume(e -> {
+                    log.error("Group commit failed for {} votes", batch.size(), e);
+                    batch.forEach(pending -> pending.result().tryEmitError(e));
+                    return Mono.empty();
+                }), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        sink.tryEmitComplete();
+        pipeline.dispose();
+    }
+
+    // Completes once the vote is committed; AlreadyVotedException when the voter already has one
+    public Mono<Vote> append(Vote vote) {
+        return Mono.defer(() -> {
+            PendingVote pending = new PendingVote(vote, Sinks.one());
+            Sinks.EmitResult result;
+            while ((result = sink.tryEmitNext(pending)) == Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+                Thread.onSpinWait();
+            }
+            if (result.isFailure()) {
+                return Mono.error(new RuntimeException("Vote service is overloaded, please retry"));
+            }
+            // Still queued or committing
+            return pending.result().asMono().timeout(ackTimeout, Mono.error(() ->
+                    new VoteNotAcknowledgedException(new TimeoutException("No commit within " + ackTimeout))));
+        });
+    }
+
+    public Mono<Tally> tally(Integer electionId) {
+        return databaseClient.sql("select candidate_id, count(*) from vote where election_id = ? group by candidate_id")
+                .bind(0, electionId)
+                .map((row, metadata) -> {
+                    Integer candidateId = row.get(0, Integer.class);
+                    Long votes = row.get(1, Long.class);
+                    return candidateId == null ? new long[0] : new long[] { candidateId, votes };
+                })
+                .all()
+                .filter(row -> row.length == 2)
+                .reduceWith(Tally::builder, (builder, row) -> builder.add((int) row[0], row[1]))
+                .map(Tally.Builder::build);
+    }
+
+    // Keyset page over idx_vote_voter, same rows as VoteRepository.findVoterVotesAfter
+    public Flux<VoteView> findVoterVotesAfter(Integer voterId, long afterId, int limit) {
+        return databaseClient.sql("select id, election_id, candidate_id, timestamp from vote "
+                        + "where voter_id = ? and id > ? order by id limit ?")
+                .bind(0, voterId)
+                .bind(1, afterId)
+                .bind(2, limit)
+                .map((row, metadata) -> new VoteView(row.get(0, Long.class), row.get(1, Integer.class),
+                        row.get(2, Integer.class), row.get(3, LocalDateTime.class)))
+                .all();
+    }
+
+    private Mono<Void> flush(List<PendingVote> batch) {
+        LocalDateTime timestamp = LocalDateTime.now();
+
+        // A voter racing themselves can land twice in one batch; only the first is written
+        List<PendingVote> writable = new ArrayList<>(batch.size());
+        Set<Long> seen = new HashSet<>();
+        for (PendingVote pending : batch) {
+            Vote vote = pending.vote();
+            if (seen.add(((long) vote.getElectionId() << 32) | (vote.getVoterId() & 0xFFFFFFFFL))) {
+                vote.setId(idGenerator.nextId());
+                vote.setTimestamp(timestamp);
+                writable.add(pending);
+            } else {
+                pending.result().tryEmitError(new AlreadyVotedException());
+            }
+        }
+        if (writable.isEmpty()) {
+            return Mono.empty();
+        }
+
+        return transactionalOperator.transactional(checkOpen(writable).then(insertBatch(writable)))
+                .then(Mono.fromRunnable(() -> writable.forEach(this::committed)))
+                // One duplicate or closed election poisons the whole batch; replay it row by row to find
+                // the culprits
+                .onErrorResume(e -> e instanceof DataIntegrityViolationException
+                                || e instanceof ElectionClosedException,
+                        e -> Flux.fromIterable(writable)
+                                .concatMap(this::insertSingle)
+                                .then())
+                .then();
+    }
+
+    private Mono<Long> insertBatch(List<PendingVote> votes) {
+        return databaseClient.inConnectionMany(connection -> {
+            Statement statement = connection.createStatement(INSERT_SQL);
+            for (int i = 0; i < votes.size(); i++) {
+                if (i > 0) {
+                    statement.add();
+                }
+                bind(statement, votes.get(i).vote());
+            }
+            return Flux.from(statement.execute()).flatMap(result -> result.getRowsUpdated());
+        }).reduce(0L, Long::sum);
+    }
+
+    // Same fence check as JdbcVoteStore.checkOpen, first in the transaction so a concurrent close waits for it
+    private Mono<Void> checkOpen(List<PendingVote> votes) {
+        Set<Integer> elections = new TreeSet<>();
+        votes.forEach(pending -> elections.add(pending.vote().getElectionId()));
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("select election_id from election_fence "
+                + "where election_id in (" + String.join(", ", Collections.nCopies(elections.size(), "?"))
+                + ") for update");
+        int index = 0;
+        for (Integer electionId : elections) {
+            spec = spec.bind(index++, electionId);
+        }
+        return spec.map((row, metadata) -> row.get(0, Integer.class))
+                .all()
+                .hasElements()
+                .flatMap(fenced -> fenced ? Mono.<Void>error(new ElectionClosedException()) : Mono.<Void>empty());
+    }
+
+    private Mono<Void> insertSingle(PendingVote pending) {
+        Mono<Void> insert = databaseClient.inConnection(connection -> {
+            Statement statement = connection.createStatement(INSERT_SQL);
+            bind(statement, pending.vote());
+            return Flux.from(statement.execute()).flatMap(result -> result.getRowsUpdated()).then();
+        });
+        return transactionalOperator.transactional(checkOpen(List.of(pending)).then(insert))
+                .then(Mono.fromRunnable(() -> committed(pending)))
+                .onErrorResume(DuplicateKeyException.class, e -> {
+                    pending.result().tryEmitError(new AlreadyVotedException());
+                    return Mono.empty();
+                })
+                .onErrorResume(e -> {
+                    pending.result().tryEmitError(e);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private void committed(PendingVote pending) {
+        Vote vote = pending.vote();
+        for (VoteCommitListener listener : commitListeners) {
+            try {
+                listener.onCommitted(vote);
+            } catch (RuntimeException e) {
+                log.error("Commit listener {} failed for vote {}", listener.getClass().getSimpleName(), vote.getId(), e);
+            }
+        }
+        pending.result().tryEmitValue(vote);
+    }
+
+    private static void bind(Statement statement, Vote vote) {
+        statement.bind(0, vote.getId())
+                .bind(1, vote.getElectionId())
+                .bind(2, vote.getVoterId())
+                .bind(4, vote.getTimestamp());
+        if (vote.getCandidateId() != null) {
+            statement.bind(3, vote.getCandidateId());
+        } else {
+            statement.bindNull(3, Integer.class);
+        }
+        if (vote.getBallot() != null) {
+            statement.bind(5, ByteBuffer.wrap(vote.getBallot()));
+        } else {
+            statement.bindNull(5, ByteBuffer.class);
+        }
+        if (vote.getRanking() != null) {
+            statement.bind(6, ByteBuffer.wrap(vote.getRanking()));
+        } else {
+            statement.bindNull(6, ByteBuffer.class);
+        }
+    }
+
+    private record PendingVote(Vote vote, Sinks.One<Vote> result) {
+    }
+}
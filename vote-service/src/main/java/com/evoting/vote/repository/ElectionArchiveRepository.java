@@ -0,0 +1,7 @@
+package com.evoting.vote.repository;
+
+import com.evoting.vote.model.ElectionArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ElectionArchiveRepository extends JpaRepository<ElectionArchive, Integer> {
+}
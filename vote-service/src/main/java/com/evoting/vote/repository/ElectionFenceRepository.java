@@ -0,0 +1,7 @@
+package com.evoting.vote.repository;
+
+import com.evoting.vote.model.ElectionFence;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ElectionFenceRepository extends JpaRepository<ElectionFence, Integer> {
+}
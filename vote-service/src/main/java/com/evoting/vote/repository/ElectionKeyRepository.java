@@ -0,0 +1,7 @@
+package com.evoting.vote.repository;
+
+import com.evoting.vote.model.ElectionKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ElectionKeyRepository extends JpaRepository<ElectionKey, Integer> {
+}
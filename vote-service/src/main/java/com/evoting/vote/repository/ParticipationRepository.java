@@ -0,0 +1,19 @@
+package com.evoting.vote.repository;
+
+import com.evoting.vote.dto.VoteView;
+import com.evoting.vote.model.Participation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ParticipationRepository extends JpaRepository<Participation, Long> {
+
+    // Keyset page over idx_participation_voter, the ledger counterpart of VoteRepository.findVoterVotesAfter
+    @Query("select new com.evoting.vote.dto.VoteView(p.id, p.electionId, p.timestamp) from Participation p "
+            + "where p.voterId = :voterId and p.id > :afterId order by p.id")
+    List<VoteView> findVoterParticipationsAfter(@Param("voterId") Integer voterId, @Param("afterId") Long afterId,
+            Pageable page);
+}
@@ -0,0 +1,7 @@
+package com.evoting.vote.repository;
+
+import com.evoting.vote.model.TallyCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface TallyCheckpointRepository extends JpaRepository<TallyCheckpoint, Integer> {
+}
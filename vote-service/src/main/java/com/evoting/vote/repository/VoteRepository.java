@@ -1,13 +1,22 @@
 package com.evoting.vote.repository;
 
+import com.evoting.vote.dto.VoteView;
 import com.evoting.vote.model.Vote;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.util.List;
 
-public interface VoteRepository extends JpaRepository<Vote, Integer> {
+public interface VoteRepository extends JpaRepository<Vote, Long> {
     List<Vote> findByElectionId(Integer electionId);
 
-    List<Vote> findByVoterId(Integer voterId);
-
     boolean existsByElectionIdAndVoterId(Integer electionId, Integer voterId);
+
+    // Keyset page over idx_vote_voter: seeks past the cursor instead of counting an offset
+    @Query("select new com.evoting.vote.dto.VoteView(v.id, v.electionId, v.candidateId, v.timestamp) from Vote v "
+            + "where v.voterId = :voterId and v.id > :afterId order by v.id")
+    List<VoteView> findVoterVotesAfter(@Param("voterId") Integer voterId, @Param("afterId") Long afterId,
+            Pageable page);
 }
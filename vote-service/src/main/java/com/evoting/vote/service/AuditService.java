@@ -0,0 +1,258 @@
+package com.evoting.vote.service;
+
+import com.evoting.vote.archive.BallotArchive;
+import com.evoting.vote.client.ResultClient;
+import com.evoting.vote.dto.AuditSample;
+import com.evoting.vote.model.ElectionFence;
+import com.evoting.vote.store.VoteStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Ballot-polling audit sample. Every ballot gets a pseudo-random key derived from the seed and its
+// id, and one pass over a streaming cursor keeps the `size` smallest keys in a bounded heap
+// (reservoir sampling with fixed priorities), so memory follows the sample size and the same seed
+// always draws the same ballots; a larger size with the same seed extends the same sequence.
+// Draws are then checked in key order with BRAVO against the published results, and the sample is
+// cut at the first draw where every reported margin is confirmed at the risk limit.
+@Service
+@Slf4j
+public class AuditService {
+
+    private final VoteStore voteStore;
+    private final BallotArchive ballotArchive;
+    private final BallotEncryptionService ballotEncryption;
+    private final ElectionFenceService electionFence;
+    private final ResultClient resultClient;
+    private final int maxSampleSize;
+    private final double defaultRiskLimit;
+
+    public AuditService(VoteStore voteStore,
+            BallotArchive ballotArchive,
+            BallotEncryptionService ballotEncryption,
+            ElectionFenceService electionFence,
+            ResultClient resultClient,
+            @Value("${vote.audit.max-sample-size:100000}") int maxSampleSize,
+            @Value("${vote.audit.risk-limit:0.05}") double defaultRiskLimit) {
+        this.voteStore = voteStore;
+        this.ballotArchive = ballotArchive;
+        this.ballotEncryption = ballotEncryption;
+        this.electionFence = electionFence;
+        this.resultClient = resultClient;
+        this.maxSampleSize = maxSampleSize;
+        this.defaultRiskLimit = defaultRiskLimit;
+    }
+
+    public AuditSample sample(Integer electionId, int size, long seed, Double riskLimit) {
+        if (size < 1 || size > maxSampleSize) {
+            throw new RuntimeException("Sample size must be between 1 and " + maxSampleSize);
+        }
+        double alpha = riskLimit != null ? riskLimit : defaultRiskLimit;
+        if (!(alpha > 0 && alpha < 1)) {
+            throw new RuntimeException("Risk limit must be between 0 and 1");
+        }
+
+        Reservoir reservoir = new Reservoir(size);
+        Long watermark = null;
+        if (ballotArchive.isArchived(electionId)) {
+            ballotArchive.scan(electionId, (id, election, voterId, candidateId, timestamp) ->
+                    reservoir.offer(key(seed, id), id, candidateId));
+        } else {
+            if (ballotEncryption.isEncrypted(electionId)) {
+                throw new RuntimeException("Election " + electionId + " has encrypted ballots, which cannot be sampled");
+            }
+            // The published tally counts exactly the ballots up to the fence
+            ElectionFence fence = electionFence.fence(electionId);
+            if (fence == null) {
+                throw new RuntimeException("Election " + electionId + " must be closed before it is audited");
+            }
+            watermark = fence.getWatermark();
+            voteStore.scanBallots(electionId, watermark, (id, election, voterId, candidateId, timestamp) ->
+                    reservoir.offer(key(seed, id), id, candidateId));
+        }
+        reservoir.sort();
+
+        Map<Integer, Long> reported = published(electionId);
+        Integer winner = winner(reported);
+        List<AuditSample.Draw> draws = new ArrayList<>(reservoir.size);
+        boolean met = false;
+        if (winner == null) {
+            for (int i = 0; i < reservoir.size; i++) {
+                draws.add(new AuditSample.Draw(reservoir.ids[i], reservoir.candidates[i], 0));
+            }
+        } else {
+            // BRAVO: one likelihood ratio per (winner, loser) pair, scaled by each draw for either of them
+            int[] losers = reported.keySet().stream().filter(id -> !id.equals(winner)).mapToInt(Integer::intValue)
+                    .toArray();
+            Map<Integer, Integer> loserIndex = new HashMap<>();
+            double[] winnerShare = new double[losers.length];
+            double[] ratio = new double[losers.length];
+            long winnerVotes = reported.get(winner);
+            for (int l = 0; l < losers.length; l++) {
+                loserIndex.put(losers[l], l);
+                winnerShare[l] = (double) winnerVotes / (winnerVotes + reported.get(losers[l]));
+                ratio[l] = 1;
+            }
+            for (int i = 0; i < reservoir.size && !met; i++) {
+                int candidateId = reservoir.candidates[i];
+                if (candidateId == winner) {
+                    for (int l = 0; l < losers.length; l++) {
+                        ratio[l] *= 2 * winnerShare[l];
+                    }
+                } else {
+                    Integer l = loserIndex.get(candidateId);
+                    if (l != null) {
+                        ratio[l] *= 2 * (1 - winnerShare[l]);
+                    }
+                }
+                double min = Double.POSITIVE_INFINITY;
+                for (double r : ratio) {
+                    min = Math.min(min, r);
+                }
+                draws.add(new AuditSample.Draw(reservoir.ids[i], candidateId, min));
+                met = min >= 1 / alpha;
+            }
+        }
+
+        log.info("Audit sample of election {} (seed {}): {} of {} ballots drawn, risk limit {} {}", electionId, seed,
+                draws.size(), reservoir.offered, alpha, met ? "met" : "not met");
+        return AuditSample.builder()
+                .electionId(electionId)
+                .seed(seed)
+                .requestedSize(size)
+                .ballotsScanned(reservoir.offered)
+                .watermark(watermark)
+                .riskLimit(alpha)
+                .reportedWinnerId(winner)
+                .riskLimitMet(met)
+                .ballots(draws)
+                .build();
+    }
+
+    // result-service appends a row per candidate on every publish, so the latest row wins
+    private Map<Integer, Long> published(Integer electionId) {
+        List<ResultClient.ResultDto> results;
+        try {
+            results = resultClient.getResults(electionId);
+        } catch (RuntimeException e) {
+            log.warn("Published results of election {} unavailable, sampling without early stop", electionId, e);
+            return Map.of();
+        }
+        Map<Integer, ResultClient.ResultDto> latest = new HashMap<>();
+        for (ResultClient.ResultDto result : results) {
+            if (result.getCandidateId() == null || result.getVoteCount() == null) {
+                continue;
+            }
+            latest.merge(result.getCandidateId(), result, (a, b) -> a.getCalculatedAt() != null
+                    && b.getCalculatedAt() != null && a.getCalculatedAt().isAfter(b.getCalculatedAt()) ? a : b);
+        }
+        Map<Integer, Long> counts = new HashMap<>();
+        latest.forEach((candidateId, result) -> counts.put(candidateId, result.getVoteCount()));
+        return counts;
+    }
+
+    // A tie for first place has no margin to confirm
+    private static Integer winner(Map<Integer, Long> reported) {
+        Integer winner = null;
+        boolean tied = false;
+        for (Map.Entry<Integer, Long> entry : reported.entrySet()) {
+            if (winner == null || entry.getValue() > reported.get(winner)) {
+                winner = entry.getKey();
+                tied = false;
+            } else if (entry.getValue().equals(reported.get(winner))) {
+                tied = true;
+            }
+        }
+        return tied || winner == null || reported.get(winner) == 0 ? null : winner;
+    }
+
+    // SplitMix64 finalizer over seed and id, made non-negative
+    private static long key(long seed, long id) {
+        long z = seed + id * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return (z ^ (z >>> 31)) >>> 1;
+    }
+
+    // Max-heap on key over parallel arrays; sort() turns it into ascending key order in place
+    private static final class Reservoir {
+        private final long[] keys;
+        private final long[] ids;
+        private final int[] candidates;
+        private int size;
+        private long offered;
+
+        Reservoir(int capacity) {
+            keys = new long[capacity];
+            ids = new long[capacity];
+            candidates = new int[capacity];
+        }
+
+        void offer(long key, long id, int candidateId) {
+            offered++;
+            if (size < keys.length) {
+                set(size, key, id, candidateId);
+                siftUp(size++);
+            } else if (key < keys[0]) {
+                set(0, key, id, candidateId);
+                siftDown(0, size);
+            }
+        }
+
+        void sort() {
+            for (int end = size - 1; end > 0; end--) {
+                swap(0, end);
+                siftDown(0, end);
+            }
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] >= keys[i]) {
+                    return;
+                }
+                swap(parent, i);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i, int end) {
+            while (true) {
+                int largest = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < end && keys[left] > keys[largest]) {
+                    largest = left;
+                }
+                if (right < end && keys[right] > keys[largest]) {
+                    largest = right;
+                }
+                if (largest == i) {
+                    return;
+                }
+                swap(i, largest);
+                i = largest;
+            }
+        }
+
+        private void set(int i, long key, long id, int candidateId) {
+            keys[i] = key;
+            ids[i] = id;
+            candidates[i] = candidateId;
+        }
+
+        private void swap(int a, int b) {
+            long key = keys[a];
+            long id = ids[a];
+            int candidateId = candidates[a];
+            set(a, keys[b], ids[b], candidates[b]);
+            set(b, key, id, candidateId);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.evoting.vote.service;
+
+import com.evoting.vote.client.ElectionClient;
+import com.evoting.vote.crypto.ExponentialElGamal;
+import com.evoting.vote.crypto.HomomorphicTally;
+import com.evoting.vote.crypto.KeyWrap;
+import com.evoting.vote.dto.Tally;
+import com.evoting.vote.dto.TallyReport;
+import com.evoting.vote.exception.ElectionNotClosedException;
+import com.evoting.vote.model.ElectionFence;
+import com.evoting.vote.model.ElectionKey;
+import com.evoting.vote.model.Vote;
+import com.evoting.vote.repository.ElectionKeyRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.math.BigInteger;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+// Encrypted ballots: when enabled, each new election gets an ElGamal key pair on its first ballot
+// and votes are stored as a one-hot vector of ciphertexts with no plaintext candidate. The tally
+// multiplies the ciphertexts per candidate in parallel and only the final sums are decrypted, and only
+// once the election is fenced, so no partial result exists while it is open. The secret key is kept
+// wrapped under a master key from configuration and unwrapped for the duration of a tally only.
+@Service
+@Slf4j
+public class BallotEncryptionService {
+
+    private static final String RANGE_SQL =
+            "select min(id), max(id), count(*) from vote where election_id = ? and candidate_id is null and id <= ?";
+
+    // Encrypted ballots have no candidate_id, so this is a range over idx_vote_election_candidate
+    private static final String BALLOTS_SQL = "select ballot from vote "
+            + "where election_id = ? and candidate_id is null and id >= ? and id < ?";
+
+    private static final ElectionKeys PLAINTEXT = new ElectionKeys(null, null, null);
+
+    private final ElectionKeyRepository keyRepository;
+    private final ElectionClient electionClient;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final SecretKey masterKey;
+    private final ForkJoinPool tallyPool;
+    private final int partitionsPerWorker;
+
+    private final Map<Integer, ElectionKeys> keys = new ConcurrentHashMap<>();
+
+    public BallotEncryptionService(ElectionKeyRepository keyRepository,
+            ElectionClient electionClient,
+            JdbcTemplate jdbcTemplate,
+            @Value("${vote.encryption.enabled:false}") boolean enabled,
+            @Value("${vote.encryption.tally-parallelism:0}") int parallelism,
+            @Value("${vote.encryption.partitions-per-worker:4}") int partitionsPerWorker,
+            @Value("${vote.encryption.master-key:}") String masterKey,
+            @Value("${vote.storage.mode:jdbc}") String storageMode) {
+        if (enabled && !"jdbc".equals(storageMode)) {
+            // The journal has no room for ciphertexts
+            throw new IllegalStateException("vote.encryption.enabled requires vote.storage.mode=jdbc");
+        }
+        if (enabled && masterKey.isBlank()) {
+            throw new IllegalStateException("vote.encryption.enabled requires vote.encryption.master-key");
+        }
+        this.keyRepository = keyRepository;
+        this.electionClient = electionClient;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.masterKey = masterKey.isBlank() ? null : KeyWrap.masterKey(masterKey);
+        this.tallyPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.partitionsPerWorker = Math.max(1, partitionsPerWorker);
+    }
+
+    @PreDestroy
+    public void stop() {
+        tallyPool.shutdown();
+    }
+
+    // Read only: never creates a key. Only keys are cached here, since another replica may create one
+    // for an election that has none yet.
+    public boolean isEncrypted(Integer electionId) {
+        ElectionKeys cached = keys.get(electionId);
+        if (cached != null) {
+            return cached != PLAINTEXT;
+        }
+        ElectionKey stored = keyRepository.findById(electionId).orElse(null);
+        if (stored == null) {
+            return false;
+        }
+        keys.putIfAbsent(electionId, ElectionKeys.of(stored));
+        return true;
+    }
+
+    // Replaces the candidate of a vote for an encrypted election with its ballot ciphertexts
+    public Vote seal(Vote vote) {
+        ElectionKeys election = keys(vote.getElectionId());
+        if (election == PLAINTEXT) {
+            return vote;
+        }
+        if (vote.getRanking() != null) {
+            throw new RuntimeException("Ranked ballots cannot be cast in an election with encrypted ballots");
+        }
+        int slot = Arrays.binarySearch(election.candidates(), vote.getCandidateId());
+        if (slot < 0) {
+            throw new RuntimeException("Candidate " + vote.getCandidateId() + " is not running in election "
+                    + vote.getElectionId());
+        }
+        vote.setBallot(ExponentialElGamal.encryptChoice(election.publicKey(), election.candidates().length, slot));
+        vote.setCandidateId(null);
+        return vote;
+    }
+
+    // Only ballots up to the fence watermark; an open election is refused rather than decrypted
+    public TallyReport tally(Integer electionId, ElectionFence fence) {
+        if (fence == null) {
+            throw new ElectionNotClosedException(electionId);
+        }
+        if (!isEncrypted(electionId)) {
+            throw new IllegalStateException("Election " + electionId + " does not use encrypted ballots");
+        }
+        ElectionKeys election = keys.get(electionId);
+        long upToId = fence.getWatermark();
+        long start = System.nanoTime();
+        long[] range = jdbcTemplate.queryForObject(RANGE_SQL, (rs, rowNum) -> new long[] {
+                rs.getLong(1), rs.getLong(2), rs.getLong(3) }, electionId, upToId);
+        // Counted while reading: ballots committed after the range query still land inside it
+        LongAdder ballots = new LongAdder();
+
+        long[] counts = new long[election.candidates().length];
+        if (range[2] > 0) {
+            long from = range[0];
+            long to = range[1] + 1;
+            long partitions = (long) tallyPool.getParallelism() * partitionsPerWorker;
+            long grain = Math.max(1, (to - from + partitions - 1) / partitions);
+            BigInteger[] sum = HomomorphicTally.sum(tallyPool, (lo, hi, sink) -> readBallots(electionId, lo, hi,
+                    ballot -> {
+                        ballots.increment();
+                        sink.accept(ballot);
+                    }), election.candidates().length, from, to, grain);
+            counts = ExponentialElGamal.decrypt(secretKey(electionId, election), sum, ballots.sum());
+        }
+
+        return TallyReport.builder()
+                .electionId(electionId)
+                .tally(Tally.of(election.candidates().clone(), counts))
+                .watermark(upToId)
+                .rowsScanned(ballots.sum())
+                .elapsedMillis((System.nanoTime() - start) / 1_000_000)
+                .build();
+    }
+
+    private BigInteger secretKey(Integer electionId, ElectionKeys election) {
+        if (masterKey == null) {
+            throw new IllegalStateException("vote.encryption.master-key is needed to tally election " + electionId);
+        }
+        return new BigInteger(1, KeyWrap.unwrap(masterKey, electionId, election.wrappedSecretKey()));
+    }
+
+    private void readBallots(Integer electionId, long from, long to, Consumer<byte[]> sink) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(BALLOTS_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // Connector/J streams rows one by one instead of buffering the whole partition
+            ps.setFetchSize(Integer.MIN_VALUE);
+            ps.setInt(1, electionId);
+            ps.setLong(2, from);
+            ps.setLong(3, to);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            byte[] ballot = rs.getBytes(1);
+            if (ballot != null) {
+                sink.accept(ballot);
+            }
+        });
+    }
+
+    // Seal path: creates the election's key on its first encrypted ballot
+    private ElectionKeys keys(Integer electionId) {
+        ElectionKeys cached = keys.get(electionId);
+        if (cached != null) {
+            return cached;
+        }
+        // Keys never change once created, so only the first ballot of an election pays for this
+        synchronized (this) {
+            cached = keys.get(electionId);
+            if (cached == null) {
+                cached = loadOrCreate(electionId);
+                keys.put(electionId, cached);
+            }
+            return cached;
+        }
+    }
+
+    private ElectionKeys loadOrCreate(Integer electionId) {
+        ElectionKey stored = keyRepository.findById(electionId).orElse(null);
+        if (stored != null) {
+            return ElectionKeys.of(stored);
+        }
+        if (!enabled) {
+            return PLAINTEXT;
+        }
+        // Switching encryption on mid-election would split the count between two representations
+        Integer plaintext = jdbcTemplate.queryForObject(
+                "select count(*) from vote where election_id = ? and candidate_id is not null", Integer.class,
+                electionId);
+        if (plaintext != null && plaintext > 0) {
+            log.warn("Election {} already has plaintext ballots, keeping it unencrypted", electionId);
+            return PLAINTEXT;
+        }
+
+        ElectionClient.ElectionDto dto = electionClient.getElection(electionId);
+        if (dto == null || dto.getCandidateIds() == null || dto.getCandidateIds().isEmpty()) {
+            throw new RuntimeException("Election " + electionId + " has no candidates");
+        }
+        int[] candidates = dto.getCandidateIds().stream().mapToInt(Integer::intValue).sorted().toArray();
+        BigInteger secretKey = ExponentialElGamal.newSecretKey();
+        try {
+            // Plain insert rather than save(): another replica may have created the key meanwhile
+            // and a merge would overwrite it
+            jdbcTemplate.update("insert into election_key (election_id, public_key, wrapped_secret_key, "
+                    + "candidates, created_at) values (?, ?, ?, ?, ?)", electionId,
+                    ExponentialElGamal.publicKey(secretKey).toByteArray(),
+                    KeyWrap.wrap(masterKey, electionId, secretKey.toByteArray()),
+                    Arrays.stream(candidates).mapToObj(String::valueOf).collect(Collectors.joining(",")),
+                    Timestamp.valueOf(LocalDateTime.now()));
+            log.info("Created ballot encryption key for election {} ({} candidates)", electionId, candidates.length);
+        } catch (DuplicateKeyException e) {
+            log.debug("Ballot encryption key for election {} was created concurrently", electionId);
+        }
+        return ElectionKeys.of(keyRepository.findById(electionId)
+                .orElseThrow(() -> new IllegalStateException("Election key " + electionId + " vanished")));
+    }
+
+    private record ElectionKeys(BigInteger publicKey, byte[] wrappedSecretKey, int[] candidates) {
+
+        static ElectionKeys of(ElectionKey key) {
+            return new ElectionKeys(new BigInteger(1, key.getPublicKey()), key.getWrappedSecretKey(),
+                    Arrays.stream(key.getCandidates().split(",")).mapToInt(Integer::parseInt).toArray());
+        }
+    }
+}
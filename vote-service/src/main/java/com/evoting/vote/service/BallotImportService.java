@@ -0,0 +1,224 @@
+package com.evoting.vote.service;
+
+import com.evoting.vote.archive.BallotArchive;
+import com.evoting.vote.dto.ImportReport;
+import com.evoting.vote.dto.ImportedBallot;
+import com.evoting.vote.event.VoteCastEvent;
+import com.evoting.vote.exception.ElectionArchivedException;
+import com.evoting.vote.exception.ElectionClosedException;
+import com.evoting.vote.exception.VoteNotAcknowledgedException;
+import com.evoting.vote.model.Vote;
+import com.evoting.vote.store.VoteStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Loads offline / paper ballots line by line. Only one batch of ballots is held at a time,
+// so memory does not depend on the size of the upload. Every row goes through the same checks as
+// castVote (archive, eligibility, election window and candidate, fence, double vote) and a row that
+// fails one is rejected with the reason in the report.
+@Service
+@Slf4j
+public class BallotImportService {
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private final VoteStore voteStore;
+    private final VoterBitmapIndex voterBitmapIndex;
+    private final BallotEncryptionService ballotEncryption;
+    private final ElectionFenceService electionFence;
+    private final BallotArchive ballotArchive;
+    private final EligibilityService eligibility;
+    private final ElectionCatalog electionCatalog;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public BallotImportService(VoteStore voteStore,
+            VoterBitmapIndex voterBitmapIndex,
+            BallotEncryptionService ballotEncryption,
+            ElectionFenceService electionFence,
+            BallotArchive ballotArchive,
+            EligibilityService eligibility,
+            ElectionCatalog electionCatalog,
+            ApplicationEventPublisher eventPublisher,
+            ObjectMapper objectMapper,
+            @Value("${vote.import.batch-size:5000}") int batchSize,
+            @Value("${vote.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.voteStore = voteStore;
+        this.voterBitmapIndex = voterBitmapIndex;
+        this.ballotEncryption = ballotEncryption;
+        this.electionFence = electionFence;
+        this.ballotArchive = ballotArchive;
+        this.eligibility = eligibility;
+        this.electionCatalog = electionCatalog;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public ImportReport importBallots(InputStream input, Format format) throws IOException {
+        long start = System.nanoTime();
+        ImportReport report = new ImportReport();
+        List<Vote> batch = new ArrayList<>(batchSize);
+        List<Long> batchLines = new ArrayList<>(batchSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (lineNumber == 1 && format == Format.CSV && isHeader(line))) {
+                    continue;
+                }
+                report.setLines(report.getLines() + 1);
+
+                ImportedBallot ballot;
+                try {
+                    ballot = format == Format.CSV ? parseCsv(line) : objectMapper.readValue(line, ImportedBallot.class);
+                } catch (Exception e) {
+                    reject(report, lineNumber, "Malformed ballot: " + e.getMessage());
+                    continue;
+                }
+                if (ballot.getElectionId() == null || ballot.getVoterId() == null || ballot.getCandidateId() == null) {
+                    reject(report, lineNumber, "electionId, voterId and candidateId are required");
+                    continue;
+                }
+                try {
+                    if (ballotArchive.isSealed(ballot.getElectionId())) {
+                        throw new ElectionArchivedException();
+                    }
+                    eligibility.check(ballot.getVoterId());
+                    electionCatalog.validate(ballot.getElectionId(), ballot.getCandidateId());
+                } catch (RuntimeException e) {
+                    reject(report, lineNumber, e.getMessage());
+                    continue;
+                }
+                // Held until the batch is flushed, so closing the election waits for it
+                try {
+                    electionFence.enter(ballot.getElectionId());
+                } catch (ElectionClosedException e) {
+                    reject(report, lineNumber, "Election " + ballot.getElectionId() + " is closed");
+                    continue;
+                }
+                // Same double-vote rule as castVote, and also catches repeats inside the file
+                if (!voterBitmapIndex.claim(ballot.getElectionId(), ballot.getVoterId())) {
+                    electionFence.exit(ballot.getElectionId());
+                    reject(report, lineNumber, "Voter " + ballot.getVoterId() + " has already voted in election "
+                            + ballot.getElectionId());
+                    continue;
+                }
+
+                try {
+                    batch.add(ballotEncryption.seal(Vote.builder()
+                            .electionId(ballot.getElectionId())
+                            .voterId(ballot.getVoterId())
+                            .candidateId(ballot.getCandidateId())
+                            .timestamp(ballot.getTimestamp())
+                            .build()));
+                } catch (RuntimeException e) {
+                    voterBitmapIndex.release(ballot.getElectionId(), ballot.getVoterId());
+                    electionFence.exit(ballot.getElectionId());
+                    reject(report, lineNumber, e.getMessage());
+                    continue;
+                }
+                batchLines.add(lineNumber);
+                if (batch.size() == batchSize) {
+                    flush(batch, batchLines, report);
+                }
+            }
+        } finally {
+            // Also on a broken upload: the ballots read so far are stored and their fence slots released
+            flush(batch, batchLines, report);
+        }
+
+        log.info("Imported {} of {} ballots ({} rejected) in {} ms", report.getAccepted(), report.getLines(),
+                report.getRejected(), (System.nanoTime() - start) / 1_000_000);
+        return report;
+    }
+
+    private void flush(List<Vote> batch, List<Long> batchLines, ImportReport report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            boolean[] stored = voteStore.appendAll(batch);
+            for (int i = 0; i < batch.size(); i++) {
+                if (stored[i]) {
+                    report.setAccepted(report.getAccepted() + 1);
+                    eventPublisher.publishEvent(new VoteCastEvent(batch.get(i)));
+                } else if (electionFence.fence(batch.get(i).getElectionId()) != null) {
+                    // Closed through another replica after this batch was admitted
+                    voterBitmapIndex.release(batch.get(i).getElectionId(), batch.get(i).getVoterId());
+                    reject(report, batchLines.get(i), "Election " + batch.get(i).getElectionId() + " is closed");
+                } else {
+                    reject(report, batchLines.get(i), "Voter " + batch.get(i).getVoterId()
+                            + " has already voted in election " + batch.get(i).getElectionId());
+                }
+            }
+        } catch (VoteNotAcknowledgedException e) {
+            // The batch may still be stored, so its voters keep their slots
+            log.error("Import batch of {} ballots was not acknowledged in time", batch.size(), e);
+            for (int i = 0; i < batch.size(); i++) {
+                reject(report, batchLines.get(i), e.getMessage());
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to store import batch of {} ballots", batch.size(), e);
+            for (int i = 0; i < batch.size(); i++) {
+                voterBitmapIndex.release(batch.get(i).getElectionId(), batch.get(i).getVoterId());
+                reject(report, batchLines.get(i), "Storage error: " + e.getMessage());
+            }
+        } finally {
+            for (Vote vote : batch) {
+                electionFence.exit(vote.getElectionId());
+            }
+            batch.clear();
+            batchLines.clear();
+        }
+    }
+
+    private void reject(ImportReport report, long line, String message) {
+        report.setRejected(report.getRejected() + 1);
+        if (report.getErrors().size() < maxReportedErrors) {
+            report.getErrors().add(new ImportReport.LineError(line, message));
+        } else {
+            report.setErrorsTruncated(true);
+        }
+    }
+
+    // electionId,voterId,candidateId[,timestamp]
+    private ImportedBallot parseCsv(String line) {
+        String[] fields = line.split(",", -1);
+        if (fields.length < 3) {
+            throw new IllegalArgumentException("expected electionId,voterId,candidateId[,timestamp]");
+        }
+        ImportedBallot ballot = new ImportedBallot();
+        ballot.setElectionId(Integer.valueOf(fields[0].trim()));
+        ballot.setVoterId(Integer.valueOf(fields[1].trim()));
+        ballot.setCandidateId(Integer.valueOf(fields[2].trim()));
+        if (fields.length > 3 && !fields[3].isBlank()) {
+            ballot.setTimestamp(LocalDateTime.parse(fields[3].trim()));
+        }
+        return ballot;
+    }
+
+    private boolean isHeader(String line) {
+        return !Character.isDigit(line.trim().charAt(0));
+    }
+}
@@ -0,0 +1,104 @@
+package com.evoting.vote.service;
+
+import com.evoting.vote.client.ElectionClient;
+import com.evoting.vote.exception.CandidateNotRunningException;
+import com.evoting.vote.exception.ElectionNotOpenException;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+
+// Read-through cache of what castVote needs from election-service: status, voting window and the
+// sorted candidate ids. election-service pushes every status or candidate change; entries are also
+// reloaded in the background after vote.election-cache.refresh-seconds, so replicas the push did
+// not reach catch up and a cast never waits on a refresh.
+@Service
+@Slf4j
+public class ElectionCatalog {
+
+    private final ElectionClient electionClient;
+    private final boolean enforce;
+    private final LoadingCache<Integer, Election> elections;
+
+    public ElectionCatalog(ElectionClient electionClient,
+            @Value("${vote.election-cache.enforce:true}") boolean enforce,
+            @Value("${vote.election-cache.max-elections:10000}") long maxElections,
+            @Value("${vote.election-cache.refresh-seconds:30}") long refreshSeconds,
+            @Value("${vote.election-cache.expire-minutes:60}") long expireMinutes) {
+        this.electionClient = electionClient;
+        this.enforce = enforce;
+        this.elections = Caffeine.newBuilder()
+                .maximumSize(maxElections)
+                .refreshAfterWrite(Duration.ofSeconds(refreshSeconds))
+                .expireAfterWrite(Duration.ofMinutes(expireMinutes))
+                .build(this::load);
+    }
+
+    // Cast path: OPEN, inside its window and, when given, a candidate of the election
+    public void validate(Integer electionId, Integer candidateId) {
+        if (!enforce) {
+            return;
+        }
+        Election election = elections.get(electionId);
+        long now = System.currentTimeMillis();
+        if (!election.open() || now < election.startMillis() || now >= election.endMillis()) {
+            throw new ElectionNotOpenException();
+        }
+        if (candidateId != null && Arrays.binarySearch(election.candidates(), candidateId) < 0) {
+            throw new CandidateNotRunningException(candidateId);
+        }
+    }
+
+    // Straight from election-service, for admin operations that must not act on a stale status
+    public String currentStatus(Integer electionId) {
+        ElectionClient.ElectionDto dto = electionClient.getElection(electionId);
+        if (dto == null) {
+            throw new RuntimeException("Election " + electionId + " not found");
+        }
+        elections.put(electionId, Election.of(dto));
+        return dto.getStatus();
+    }
+
+    // Sorted; callers must not modify the array
+    public int[] candidates(Integer electionId) {
+        return elections.get(electionId).candidates();
+    }
+
+    // Pushed by election-service after updateStatus and addCandidate
+    public void update(ElectionClient.ElectionDto dto) {
+        if (dto == null || dto.getId() == null) {
+            return;
+        }
+        elections.put(dto.getId(), Election.of(dto));
+        log.debug("Election {} is now {} with {} candidates", dto.getId(), dto.getStatus(),
+                dto.getCandidateIds() == null ? 0 : dto.getCandidateIds().size());
+    }
+
+    private Election load(Integer electionId) {
+        ElectionClient.ElectionDto dto = electionClient.getElection(electionId);
+        if (dto == null) {
+            throw new RuntimeException("Election " + electionId + " not found");
+        }
+        return Election.of(dto);
+    }
+
+    private record Election(boolean open, long startMillis, long endMillis, int[] candidates) {
+
+        static Election of(ElectionClient.ElectionDto dto) {
+            int[] candidates = dto.getCandidateIds() == null ? new int[0]
+                    : dto.getCandidateIds().stream().mapToInt(Integer::intValue).sorted().toArray();
+            return new Election("OPEN".equals(dto.getStatus()), millis(dto.getStartAt(), Long.MIN_VALUE),
+                    millis(dto.getEndAt(), Long.MAX_VALUE), candidates);
+        }
+
+        private static long millis(LocalDateTime time, long unset) {
+            return time == null ? unset : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+    }
+}
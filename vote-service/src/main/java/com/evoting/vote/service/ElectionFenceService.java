@@ -0,0 +1,268 @@
+package com.evoting.vote.service;
+
+import com.evoting.vote.dto.MerkleRoot;
+import com.evoting.vote.dto.Tally;
+import com.evoting.vote.dto.TallyReport;
+import com.evoting.vote.exception.ElectionClosedException;
+import com.evoting.vote.merkle.MerkleLogService;
+import com.evoting.vote.model.ElectionFence;
+import com.evoting.vote.model.TallyCheckpoint;
+import com.evoting.vote.repository.ElectionFenceRepository;
+import com.evoting.vote.repository.TallyCheckpointRepository;
+import com.evoting.vote.store.VoteIdGenerator;
+import com.evoting.vote.store.VoteStore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Close fence: closing an election stops new casts, waits for the ones already admitted to be
+// committed and records a watermark id above all of them. The final tally counts exactly the
+// votes up to the watermark, starting from the last persisted checkpoint. Other replicas learn of
+// the close on their next refresh, but their vote stores already check the fence row in every
+// write transaction, so no vote is acknowledged after the close on any node.
+@Service
+@Slf4j
+public class ElectionFenceService {
+
+    private final ElectionFenceRepository fenceRepository;
+    private final TallyCheckpointRepository checkpointRepository;
+    private final VoteStore voteStore;
+    private final VoteIdGenerator idGenerator;
+    private final MerkleLogService merkleLogService;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long drainTimeoutMillis;
+    private final long checkpointLagMillis;
+
+    private final Map<Integer, Gate> gates = new ConcurrentHashMap<>();
+
+    public ElectionFenceService(ElectionFenceRepository fenceRepository,
+            TallyCheckpointRepository checkpointRepository,
+            VoteStore voteStore,
+            VoteIdGenerator idGenerator,
+            MerkleLogService merkleLogService,
+            ObjectMapper objectMapper,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${vote.fence.drain-timeout-ms:10000}") long drainTimeoutMillis,
+            @Value("${vote.fence.checkpoint-lag-ms:60000}") long checkpointLagMillis) {
+        this.fenceRepository = fenceRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.voteStore = voteStore;
+        this.idGenerator = idGenerator;
+        this.merkleLogService = merkleLogService;
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.drainTimeoutMillis = drainTimeoutMillis;
+        this.checkpointLagMillis = checkpointLagMillis;
+    }
+
+    // Also picks up elections closed through another replica
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${vote.fence.refresh-interval-ms:5000}",
+            initialDelayString = "${vote.fence.refresh-interval-ms:5000}")
+    public void refresh() {
+        for (ElectionFence fence : fenceRepository.findAll()) {
+            Gate gate = gate(fence.getElectionId());
+            gate.fence = fence;
+            gate.closed = true;
+        }
+    }
+
+    // Admits one cast; every successful enter must be paired with exit once the vote is stored or failed
+    public void enter(Integer electionId) {
+        Gate gate = gate(electionId);
+        gate.inFlight.incrementAndGet();
+        if (gate.closed) {
+            gate.inFlight.decrementAndGet();
+            throw new ElectionClosedException();
+        }
+    }
+
+    public void exit(Integer electionId) {
+        gate(electionId).inFlight.decrementAndGet();
+    }
+
+    public ElectionFence close(Integer electionId) {
+        Gate gate = gate(electionId);
+        synchronized (gate) {
+            if (gate.fence != null) {
+                return gate.fence;
+            }
+            ElectionFence stored = fenceRepository.findById(electionId).orElse(null);
+            if (stored != null) {
+                gate.fence = stored;
+                gate.closed = true;
+                return stored;
+            }
+
+            gate.closed = true;
+            ElectionFence fence;
+            try {
+                drain(electionId, gate);
+                fence = transactionTemplate.execute(status -> persist(electionId));
+            } catch (DuplicateKeyException e) {
+                // Closed through another replica in the meantime
+                fence = fenceRepository.findById(electionId).orElseThrow(() -> e);
+            } catch (RuntimeException e) {
+                gate.closed = false;
+                throw e;
+            }
+            gate.fence = fence;
+            log.info("Closed election {} at watermark {} ({} ballots in the Merkle log)", electionId,
+                    fence.getWatermark(), fence.getMerkleTreeSize());
+            return fence;
+        }
+    }
+
+    // Every vote admitted on this node is committed now. The fence row goes in before the watermark is taken:
+    // the vote stores lock it, or its gap, first in each write transaction, so this insert waits for the
+    // batches other replicas already admitted and later ones see the fence and fail. The watermark is then
+    // above every vote that will ever commit in the election, whichever node allocated its id.
+    private ElectionFence persist(Integer electionId) {
+        LocalDateTime closedAt = LocalDateTime.now();
+        jdbcTemplate.update("insert into election_fence (election_id, watermark, closed_at) values (?, ?, ?)",
+                electionId, Long.MAX_VALUE, Timestamp.valueOf(closedAt));
+        long watermark = Math.max(idGenerator.nextId(), voteStore.maxId(electionId));
+        voteStore.fence(electionId, watermark);
+        MerkleRoot root = merkleLogService.getRoot(electionId, watermark);
+        jdbcTemplate.update("update election_fence set watermark = ?, merkle_tree_size = ?, merkle_root = ? "
+                + "where election_id = ?", watermark, root.getTreeSize(), root.getRoot(), electionId);
+        return ElectionFence.builder()
+                .electionId(electionId)
+                .watermark(watermark)
+                .merkleTreeSize(root.getTreeSize())
+                .merkleRoot(root.getRoot())
+                .closedAt(closedAt)
+                .build();
+    }
+
+    public ElectionFence fence(Integer electionId) {
+        Gate gate = gate(electionId);
+        if (gate.fence == null) {
+            fenceRepository.findById(electionId).ifPresent(fence -> {
+                gate.fence = fence;
+                gate.closed = true;
+            });
+        }
+        return gate.fence;
+    }
+
+    // Checkpoint plus the votes after it, up to the fence; the checkpoint is then moved to the fence
+    public TallyReport tally(Integer electionId, ElectionFence fence) {
+        TallyReport report = checkpointedTally(electionId, fence.getWatermark());
+        report.setWatermark(fence.getWatermark());
+        return report;
+    }
+
+    // Votes older than the lag are committed or failed on every replica, so counts below that id are final
+    @Scheduled(fixedDelayString = "${vote.fence.checkpoint-interval-ms:60000}",
+            initialDelayString = "${vote.fence.checkpoint-interval-ms:60000}")
+    public void checkpoint() {
+        long horizon = VoteIdGenerator.floorId(System.currentTimeMillis() - checkpointLagMillis) - 1;
+        gates.forEach((electionId, gate) -> {
+            if (gate.closed) {
+                return;
+            }
+            try {
+                checkpointedTally(electionId, voteStore.checkpointHorizon(electionId, horizon));
+            } catch (RuntimeException e) {
+                log.error("Tally checkpoint of election {} failed", electionId, e);
+            }
+        });
+    }
+
+    private TallyReport checkpointedTally(Integer electionId, long upToId) {
+        synchronized (gate(electionId)) {
+            long start = System.nanoTime();
+            TallyCheckpoint checkpoint = checkpointRepository.findById(electionId).orElse(null);
+            long afterId = 0;
+            Tally base = Tally.builder().build();
+            if (checkpoint != null && checkpoint.getUpToId() <= upToId) {
+                afterId = checkpoint.getUpToId();
+                base = read(checkpoint.getTally());
+            }
+
+            TallyReport delta = voteStore.tally(electionId, afterId, upToId);
+            Tally.Builder merged = Tally.builder();
+            for (Tally part : new Tally[] { base, delta.getTally() }) {
+                for (int i = 0; i < part.size(); i++) {
+                    merged.add(part.candidateIdAt(i), part.countAt(i));
+                }
+            }
+            Tally tally = merged.build();
+
+            if (checkpoint == null || upToId > checkpoint.getUpToId()) {
+                checkpointRepository.save(TallyCheckpoint.builder()
+                        .electionId(electionId)
+                        .upToId(upToId)
+                        .tally(write(tally))
+                        .updatedAt(LocalDateTime.now())
+                        .build());
+            }
+            return TallyReport.builder()
+                    .electionId(electionId)
+                    .tally(tally)
+                    .rowsScanned(delta.getRowsScanned())
+                    .elapsedMillis((System.nanoTime() - start) / 1_000_000)
+                    .build();
+        }
+    }
+
+    private void drain(Integer electionId, Gate gate) {
+        long deadline = System.currentTimeMillis() + drainTimeoutMillis;
+        while (gate.inFlight.get() > 0) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new RuntimeException("Timed out waiting for " + gate.inFlight.get()
+                        + " in-flight votes of election " + electionId + ", election left open");
+            }
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while closing election " + electionId, e);
+            }
+        }
+    }
+
+    private Tally read(String json) {
+        try {
+            return objectMapper.readValue(json, Tally.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable tally checkpoint", e);
+        }
+    }
+
+    private String write(Tally tally) {
+        try {
+            return objectMapper.writeValueAsString(tally);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize tally checkpoint", e);
+        }
+    }
+
+    private Gate gate(Integer electionId) {
+        return gates.computeIfAbsent(electionId, id -> new Gate());
+    }
+
+    private static final class Gate {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile boolean closed;
+        private volatile ElectionFence fence;
+    }
+}
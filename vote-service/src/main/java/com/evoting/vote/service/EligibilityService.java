@@ -0,0 +1,131 @@
+package com.evoting.vote.service;
+
+import com.evoting.vote.client.VoterClient;
+import com.evoting.vote.exception.EligibilityUnavailableException;
+import com.evoting.vote.exception.VoterNotEligibleException;
+import com.evoting.vote.util.ConcurrentBitSet;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+// userIds of VERIFIED voters as a bitmap, so the cast path checks eligibility without calling
+// voter-service. Loaded in full at startup, updated by voter-service on every status change and
+// pulled as deltas on a schedule: a push only reaches one replica and may be lost.
+@Service
+@Slf4j
+public class EligibilityService {
+
+    private final VoterClient voterClient;
+    private final boolean enabled;
+    private final long overlapMillis;
+
+    private volatile ConcurrentBitSet eligible;
+    private volatile LocalDateTime asOf;
+
+    public EligibilityService(VoterClient voterClient,
+            @Value("${vote.eligibility.enabled:true}") boolean enabled,
+            @Value("${vote.eligibility.overlap-ms:60000}") long overlapMillis) {
+        this.voterClient = voterClient;
+        this.enabled = enabled;
+        this.overlapMillis = overlapMillis;
+    }
+
+    // Fails closed: until the first load nobody can vote
+    public void check(Integer voterId) {
+        if (!enabled) {
+            return;
+        }
+        ConcurrentBitSet current = eligible;
+        if (current == null) {
+            throw new EligibilityUnavailableException();
+        }
+        if (voterId == null || voterId < 0 || !current.get(voterId)) {
+            throw new VoterNotEligibleException();
+        }
+    }
+
+    // Pushed by voter-service after registerVoter and updateVoterStatus
+    public void update(Integer userId, boolean verified) {
+        ConcurrentBitSet current = eligible;
+        if (current == null || userId == null || userId < 0) {
+            return;
+        }
+        if (verified) {
+            current.set(userId);
+        } else {
+            current.clear(userId);
+        }
+    }
+
+    @PostConstruct
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            // The scheduled refresh keeps retrying
+            log.error("Could not load voter eligibility from voter-service: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${vote.eligibility.refresh-interval-ms:30000}",
+            initialDelayString = "${vote.eligibility.refresh-interval-ms:30000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (eligible == null) {
+                reload();
+                return;
+            }
+            // Rows are stamped before their commit, so the window reaches back past the last asOf
+            VoterClient.EligibilityDto changes = voterClient.getEligibility(
+                    asOf.minusNanos(overlapMillis * 1_000_000).toString());
+            apply(eligible, changes);
+            asOf = changes.getAsOf();
+            log.debug("Voter eligibility: {} granted, {} revoked", length(changes.getGranted()),
+                    length(changes.getRevoked()));
+        } catch (RuntimeException e) {
+            log.warn("Voter eligibility refresh failed: {}", e.getMessage());
+        }
+    }
+
+    private synchronized void reload() {
+        long start = System.nanoTime();
+        VoterClient.EligibilityDto snapshot = voterClient.getEligibility(null);
+        ConcurrentBitSet loaded = new ConcurrentBitSet();
+        apply(loaded, snapshot);
+        asOf = snapshot.getAsOf();
+        eligible = loaded;
+        log.info("Loaded {} eligible voters ({} KB) in {} ms", loaded.cardinality(), loaded.sizeInBytes() / 1024,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void apply(ConcurrentBitSet bitmap, VoterClient.EligibilityDto changes) {
+        if (changes.getGranted() != null) {
+            for (int userId : changes.getGranted()) {
+                if (userId >= 0) {
+                    bitmap.set(userId);
+                }
+            }
+        }
+        if (changes.getRevoked() != null) {
+            for (int userId : changes.getRevoked()) {
+                if (userId >= 0) {
+                    bitmap.clear(userId);
+                }
+            }
+        }
+    }
+
+    private static int length(int[] ids) {
+        return ids == null ? 0 : ids.length;
+    }
+}
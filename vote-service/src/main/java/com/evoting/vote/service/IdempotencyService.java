@@ -0,0 +1,179 @@
+package com.evoting.vote.service;
+
+import com.evoting.vote.dto.VoteRequest;
+import com.evoting.vote.exception.AlreadyVotedException;
+import com.evoting.vote.exception.IdempotencyKeyException;
+import com.evoting.vote.exception.VoteNotAcknowledgedException;
+import com.evoting.vote.model.Vote;
+import com.evoting.vote.store.VoteStore;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+// Remembers the outcome of recent POST /vote calls by (voter, Idempotency-Key). A retry is
+// answered from memory with the original vote or the original 409; a retry that arrives while
+// the first attempt is still running waits for it instead of starting a second one. When the first
+// attempt ended without knowing whether its vote was stored, the retry looks it up by (election, voter)
+// and only casts again when nothing was stored.
+@Service
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final VoteStore voteStore;
+    private final Cache<String, Entry> entries;
+
+    public IdempotencyService(VoteStore voteStore,
+            @Value("${vote.idempotency.max-keys:200000}") long maxKeys,
+            @Value("${vote.idempotency.ttl-minutes:60}") long ttlMinutes) {
+        this.voteStore = voteStore;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+    }
+
+    public Vote execute(Integer voterId, String key, VoteRequest request, Supplier<Vote> action) {
+        String cacheKey = cacheKey(voterId, key);
+        Entry fresh = new Entry(request.getElectionId(), request.getCandidateId(), request.getRanking(),
+                new CompletableFuture<>());
+        Entry existing = claim(cacheKey, fresh, request);
+        if (existing != null && existing != fresh) {
+            return await(existing.outcome());
+        }
+
+        try {
+            Vote vote = existing == fresh ? settle(voterId, request, action) : action.get();
+            fresh.outcome().complete(vote);
+            return vote;
+        } catch (AlreadyVotedException | VoteNotAcknowledgedException e) {
+            // A 409 is replayed; an unknown outcome stays claimed for the next retry to settle
+            fresh.outcome().completeExceptionally(e);
+            throw e;
+        } catch (RuntimeException e) {
+            // Anything else may be transient, so the next retry runs for real
+            entries.asMap().remove(cacheKey, fresh);
+            fresh.outcome().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // Same bookkeeping for the WebFlux controller; a retry subscribes to the first outcome instead of blocking
+    public Mono<Vote> executeReactive(Integer voterId, String key, VoteRequest request, Supplier<Mono<Vote>> action) {
+        return Mono.defer(() -> {
+            String cacheKey = cacheKey(voterId, key);
+            Entry fresh = new Entry(request.getElectionId(), request.getCandidateId(), request.getRanking(),
+                    new CompletableFuture<>());
+            Entry existing = claim(cacheKey, fresh, request);
+            if (existing != null && existing != fresh) {
+                return Mono.fromFuture(existing.outcome(), true);
+            }
+            Mono<Vote> attempt = existing == fresh ? settleReactive(voterId, request, action) : action.get();
+            return attempt
+                    .doOnNext(vote -> fresh.outcome().complete(vote))
+                    .doOnError(e -> {
+                        if (!(e instanceof AlreadyVotedException || e instanceof VoteNotAcknowledgedException)) {
+                            entries.asMap().remove(cacheKey, fresh);
+                        }
+                        fresh.outcome().completeExceptionally(e);
+                    })
+                    // The cast carries on without the caller, so its outcome is unknown from here
+                    .doOnCancel(() -> fresh.outcome().completeExceptionally(
+                            new VoteNotAcknowledgedException(new CancellationException("Request was cancelled"))));
+        });
+    }
+
+    // Retry of an attempt whose outcome is unknown: its vote is returned if it was stored. Otherwise the
+    // cast runs again, and a double vote then means the first one is still on its way.
+    private Vote settle(Integer voterId, VoteRequest request, Supplier<Vote> action) {
+        Vote stored = voteStore.find(request.getElectionId(), voterId);
+        if (stored != null) {
+            return stored;
+        }
+        try {
+            return action.get();
+        } catch (AlreadyVotedException e) {
+            stored = voteStore.find(request.getElectionId(), voterId);
+            if (stored != null) {
+                return stored;
+            }
+            throw new VoteNotAcknowledgedException(e);
+        }
+    }
+
+    // settle() without blocking the event loop on the lookups
+    private Mono<Vote> settleReactive(Integer voterId, VoteRequest request, Supplier<Mono<Vote>> action) {
+        Mono<Vote> stored = Mono.fromCallable(() -> voteStore.find(request.getElectionId(), voterId))
+                .subscribeOn(Schedulers.boundedElastic());
+        return stored.switchIfEmpty(Mono.defer(action::get)
+                .onErrorResume(AlreadyVotedException.class, e -> stored.switchIfEmpty(
+                        Mono.error(() -> new VoteNotAcknowledgedException(e)))));
+    }
+
+    private static String cacheKey(Integer voterId, String key) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IdempotencyKeyException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        return voterId + ":" + key;
+    }
+
+    // Null when `fresh` now owns the key, `fresh` itself when it took the key over from an attempt whose
+    // outcome is unknown, otherwise the entry of the earlier request
+    private Entry claim(String cacheKey, Entry fresh, VoteRequest request) {
+        while (true) {
+            Entry existing = entries.asMap().putIfAbsent(cacheKey, fresh);
+            if (existing != null && !existing.matches(request)) {
+                throw new IdempotencyKeyException("Idempotency-Key was already used with a different ballot");
+            }
+            if (existing == null || !existing.unacknowledged()) {
+                return existing;
+            }
+            if (entries.asMap().replace(cacheKey, existing, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private static Vote await(CompletableFuture<Vote> outcome) {
+        try {
+            return outcome.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Entry(Integer electionId, Integer candidateId, List<Integer> ranking,
+            CompletableFuture<Vote> outcome) {
+        boolean matches(VoteRequest request) {
+            return Objects.equals(electionId, request.getElectionId())
+                    && Objects.equals(candidateId, request.getCandidateId())
+                    && Objects.equals(ranking, request.getRanking());
+        }
+
+        boolean unacknowledged() {
+            if (!outcome.isCompletedExceptionally()) {
+                return false;
+            }
+            try {
+                outcome.getNow(null);
+                return false;
+            } catch (CompletionException e) {
+                return e.getCause() instanceof VoteNotAcknowledgedException;
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.evoting.vote.service;
+
+import com.evoting.vote.dto.Tally;
+import com.evoting.vote.event.VoteCastEvent;
+import com.evoting.vote.store.VoteStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LiveTallyService implements VoteIndex {
+
+    private final VoteStore voteStore;
+
+    // electionId -> candidateId -> striped counter
+    private final Map<Integer, Map<Integer, LongAdder>> counters = new ConcurrentHashMap<>();
+
+    // Last drift seen per election; a correction is only applied when the same drift is seen twice in a row,
+    // so votes committed between the store count and the counter read are not "fixed" twice.
+    private final Map<Integer, Map<Integer, Long>> pendingDrift = new ConcurrentHashMap<>();
+
+    @Override
+    public void reset() {
+        counters.clear();
+        pendingDrift.clear();
+    }
+
+    @Override
+    public void onVote(long id, int electionId, int voterId, int candidateId, long timestampMillis) {
+        // 0 is an encrypted ballot, those are only counted at tally time
+        if (candidateId != 0) {
+            counter(electionId, candidateId).increment();
+        }
+    }
+
+    // Published by VoteService once the vote is durable
+    @EventListener
+    public void onVoteCast(VoteCastEvent event) {
+        if (event.vote().getElectionId() == null || event.vote().getCandidateId() == null) {
+            return;
+        }
+        counter(event.vote().getElectionId(), event.vote().getCandidateId()).increment();
+    }
+
+    public Map<Integer, Long> getLiveTally(Integer electionId) {
+        Map<Integer, LongAdder> election = counters.get(electionId);
+        Map<Integer, Long> snapshot = new HashMap<>();
+        if (election != null) {
+            election.forEach((candidateId, count) -> snapshot.put(candidateId, count.sum()));
+        }
+        return snapshot;
+    }
+
+    @Scheduled(fixedDelayString = "${vote.live-tally.reconcile-interval-ms:60000}",
+            initialDelayString = "${vote.live-tally.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        for (Integer electionId : counters.keySet()) {
+            Map<Integer, Long> drift = new HashMap<>();
+            Map<Integer, Long> live = getLiveTally(electionId);
+            Tally stored = voteStore.tally(electionId).getTally();
+            for (int i = 0; i < stored.size(); i++) {
+                int candidateId = stored.candidateIdAt(i);
+                long delta = stored.countAt(i) - live.getOrDefault(candidateId, 0L);
+                if (delta != 0) {
+                    drift.put(candidateId, delta);
+                }
+                live.remove(candidateId);
+            }
+            // Candidates counted in memory but absent from the store
+            live.forEach((candidateId, count) -> {
+                if (count != 0) {
+                    drift.put(candidateId, -count);
+                }
+            });
+
+            Map<Integer, Long> previous = pendingDrift.put(electionId, drift);
+            if (!drift.isEmpty() && drift.equals(previous)) {
+                log.warn("Live tally for election {} drifted from the vote store, correcting {}", electionId, drift);
+                drift.forEach((candidateId, delta) -> counter(electionId, candidateId).add(delta));
+                pendingDrift.remove(electionId);
+            }
+        }
+    }
+
+    private LongAdder counter(Integer electionId, Integer candidateId) {
+        return counters.computeIfAbsent(electionId, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(candidateId, id -> new LongAdder());
+    }
+}
@@ -0,0 +1,78 @@
+package com.evoting.vote.service;
+
+import com.evoting.vote.dto.VotePage;
+import com.evoting.vote.dto.VoteView;
+import com.evoting.vote.event.VoteCastEvent;
+import com.evoting.vote.repository.ParticipationRepository;
+import com.evoting.vote.repository.VoteRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+
+@Service
+public class MyVotesService {
+
+    private final VoteRepository voteRepository;
+    private final ParticipationRepository participationRepository;
+    // Ledger storage keeps no voter-to-candidate link, so voters only see where they took part
+    private final boolean ledger;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    // First page per voter, i.e. what the dashboard loads; evicted by the voter's own castVote once it is
+    // committed. A vote cast through another replica is not seen here, so the TTL is kept short. Null in
+    // journal mode: the vote table is projected after the voter is acknowledged, so there is no point at
+    // which an eviction would be safe.
+    private final Cache<Integer, VotePage> firstPages;
+
+    public MyVotesService(VoteRepository voteRepository,
+            ParticipationRepository participationRepository,
+            @Value("${vote.storage.mode:jdbc}") String storageMode,
+            @Value("${vote.my-votes.page-size:20}") int defaultPageSize,
+            @Value("${vote.my-votes.max-page-size:100}") int maxPageSize,
+            @Value("${vote.my-votes.cache.max-voters:100000}") long maxCachedVoters,
+            @Value("${vote.my-votes.cache.ttl-seconds:5}") long ttlSeconds) {
+        this.voteRepository = voteRepository;
+        this.participationRepository = participationRepository;
+        this.ledger = "ledger".equals(storageMode);
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.firstPages = "journal".equals(storageMode) ? null : Caffeine.newBuilder()
+                .maximumSize(maxCachedVoters)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public VotePage getVotes(Integer voterId, Long after, Integer limit) {
+        int size = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        if (firstPages != null && after == null && size == defaultPageSize) {
+            return firstPages.get(voterId, id -> load(id, 0L, size));
+        }
+        return load(voterId, after == null ? 0L : after, size);
+    }
+
+    @EventListener
+    public void onVoteCast(VoteCastEvent event) {
+        if (firstPages != null) {
+            firstPages.invalidate(event.vote().getVoterId());
+        }
+    }
+
+    private VotePage load(Integer voterId, long after, int size) {
+        // One extra row tells whether another page exists without a count query
+        List<VoteView> rows = ledger
+                ? participationRepository.findVoterParticipationsAfter(voterId, after, PageRequest.of(0, size + 1))
+                : voteRepository.findVoterVotesAfter(voterId, after, PageRequest.of(0, size + 1));
+        if (rows.size() <= size) {
+            return new VotePage(rows, null);
+        }
+        List<VoteView> items = rows.subList(0, size);
+        return new VotePage(List.copyOf(items), items.get(size - 1).getId());
+    }
+}
@@ -0,0 +1,98 @@
+package com.evoting.vote.service;
+
+import com.evoting.vote.model.ElectionFence;
+import com.evoting.vote.model.Vote;
+import com.evoting.vote.store.VoteStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+
+// Ranked ballots are packed as one byte per preference, the candidate's index in the election's
+// sorted candidate ids, so a typical ballot takes a handful of bytes. result-service reads them back
+// with GET /vote/{id}/ballots/ranked for the instant-runoff count.
+@Service
+@RequiredArgsConstructor
+public class RankedBallotService {
+
+    // Preference indices and the ballot length both fit in one unsigned byte
+    private static final int MAX_CANDIDATES = 255;
+
+    private final ElectionCatalog electionCatalog;
+    private final VoteStore voteStore;
+    private final ElectionFenceService electionFence;
+
+    // Packs the ranking onto the vote and makes its first choice the vote's candidate
+    public Vote rank(Vote vote, List<Integer> ranking) {
+        if (ranking == null || ranking.isEmpty()) {
+            return vote;
+        }
+        int[] layout = candidates(vote.getElectionId());
+        byte[] packed = new byte[ranking.size()];
+        boolean[] seen = new boolean[layout.length];
+        for (int i = 0; i < packed.length; i++) {
+            Integer candidateId = ranking.get(i);
+            int index = candidateId == null ? -1 : Arrays.binarySearch(layout, candidateId);
+            if (index < 0) {
+                throw new RuntimeException("Candidate " + candidateId + " is not running in election "
+                        + vote.getElectionId());
+            }
+            if (seen[index]) {
+                throw new RuntimeException("Candidate " + candidateId + " is ranked more than once");
+            }
+            seen[index] = true;
+            packed[i] = (byte) index;
+        }
+        if (vote.getCandidateId() != null && !vote.getCandidateId().equals(ranking.get(0))) {
+            throw new RuntimeException("candidateId must be the first choice of the ranking");
+        }
+        vote.setCandidateId(ranking.get(0));
+        vote.setRanking(packed);
+        return vote;
+    }
+
+    // Header: candidate count and sorted candidate ids as ints; then per ballot one length byte and
+    // the packed preferences. Closed elections stop at their fence watermark.
+    public void export(Integer electionId, OutputStream output) {
+        ElectionFence fence = electionFence.fence(electionId);
+        long upToId = fence != null ? fence.getWatermark() : Long.MAX_VALUE;
+        int[] layout = candidates(electionId);
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output, 1 << 16));
+        try {
+            out.writeInt(layout.length);
+            for (int candidateId : layout) {
+                out.writeInt(candidateId);
+            }
+            voteStore.scanRankedBallots(electionId, upToId, ranking -> {
+                try {
+                    out.writeByte(ranking.length);
+                    out.write(ranking);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Candidates can only change while an election is a draft, so the index layout is stable once
+    // ballots exist
+    private int[] candidates(Integer electionId) {
+        int[] layout = electionCatalog.candidates(electionId);
+        if (layout.length == 0) {
+            throw new RuntimeException("Election " + electionId + " has no candidates");
+        }
+        if (layout.length > MAX_CANDIDATES) {
+            throw new RuntimeException("Ranked ballots support at most " + MAX_CANDIDATES + " candidates");
+        }
+        return layout;
+    }
+}
@@ -0,0 +1,115 @@
+package com.evoting.vote.service;
+
+import com.evoting.vote.dto.TurnoutSeries;
+import com.evoting.vote.event.VoteCastEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Rolling per-election turnout histograms kept in fixed rings of time buckets,
+// updated on every cast and rebuilt from vote timestamps at startup.
+@Service
+public class TurnoutService implements VoteIndex {
+
+    public enum Resolution {
+        SECOND(1_000L, 3600),
+        MINUTE(60_000L, 24 * 60),
+        HOUR(3_600_000L, 31 * 24);
+
+        private final long bucketMillis;
+        private final int buckets;
+
+        Resolution(long bucketMillis, int buckets) {
+            this.bucketMillis = bucketMillis;
+            this.buckets = buckets;
+        }
+    }
+
+    private final Map<Integer, Ring[]> elections = new ConcurrentHashMap<>();
+
+    @Override
+    public void reset() {
+        elections.clear();
+    }
+
+    @Override
+    public void onVote(long id, int electionId, int voterId, int candidateId, long timestampMillis) {
+        record(electionId, timestampMillis);
+    }
+
+    @EventListener
+    public void onVoteCast(VoteCastEvent event) {
+        if (event.vote().getTimestamp() == null) {
+            return;
+        }
+        record(event.vote().getElectionId(),
+                event.vote().getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    public TurnoutSeries getTurnout(Integer electionId, Resolution resolution, int points) {
+        int count = Math.max(1, Math.min(points, resolution.buckets));
+        long current = System.currentTimeMillis() / resolution.bucketMillis;
+        Ring[] rings = elections.get(electionId);
+
+        List<TurnoutSeries.Point> series = new ArrayList<>(count);
+        for (long bucket = current - count + 1; bucket <= current; bucket++) {
+            long votes = rings == null ? 0 : rings[resolution.ordinal()].get(bucket);
+            series.add(new TurnoutSeries.Point(bucket * resolution.bucketMillis, votes));
+        }
+        return new TurnoutSeries(electionId, resolution.name(), resolution.bucketMillis, series);
+    }
+
+    private void record(int electionId, long timestampMillis) {
+        Ring[] rings = elections.computeIfAbsent(electionId, id -> {
+            Resolution[] resolutions = Resolution.values();
+            Ring[] created = new Ring[resolutions.length];
+            for (Resolution resolution : resolutions) {
+                created[resolution.ordinal()] = new Ring(resolution.buckets);
+            }
+            return created;
+        });
+        for (Resolution resolution : Resolution.values()) {
+            rings[resolution.ordinal()].increment(timestampMillis / resolution.bucketMillis);
+        }
+    }
+
+    // Each slot packs (bucket number << 32 | count) in one long, so moving a slot to a newer
+    // bucket and counting into it is a single CAS. Buckets older than the ring are dropped.
+    private static final class Ring {
+        private final AtomicLongArray slots;
+
+        Ring(int size) {
+            this.slots = new AtomicLongArray(size);
+        }
+
+        void increment(long bucket) {
+            int index = (int) (bucket % slots.length());
+            while (true) {
+                long current = slots.get(index);
+                long slotBucket = current >>> 32;
+                long next;
+                if (slotBucket == bucket) {
+                    next = current + 1;
+                } else if (slotBucket < bucket) {
+                    next = (bucket << 32) | 1;
+                } else {
+                    return;
+                }
+                if (slots.compareAndSet(index, current, next)) {
+                    return;
+                }
+            }
+        }
+
+        long get(long bucket) {
+            long current = slots.get((int) (bucket % slots.length()));
+            return (current >>> 32) == bucket ? current & 0xFFFFFFFFL : 0;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.evoting.vote.service;
+
+import com.evoting.vote.store.VoteRecordHandler;
+
+// In-memory view derived from stored votes; rebuilt at startup by VoteIndexLoader
+public interface VoteIndex extends VoteRecordHandler {
+    void reset();
+}
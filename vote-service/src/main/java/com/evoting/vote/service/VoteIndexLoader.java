@@ -0,0 +1,34 @@
+package com.evoting.vote.service;
+
+import com.evoting.vote.store.VoteStore;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Rebuilds every VoteIndex from a single pass over the vote store, before the web server starts
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VoteIndexLoader {
+
+    private final VoteStore voteStore;
+    private final List<VoteIndex> indexes;
+
+    @PostConstruct
+    public void load() {
+        long start = System.nanoTime();
+        indexes.forEach(VoteIndex::reset);
+        long[] rows = new long[1];
+        voteStore.scan((id, electionId, voterId, candidateId, timestampMillis) -> {
+            for (VoteIndex index : indexes) {
+                index.onVote(id, electionId, voterId, candidateId, timestampMillis);
+            }
+            rows[0]++;
+        });
+        log.info("Rebuilt {} vote indexes from {} votes in {} ms",
+                indexes.size(), rows[0], (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -1,48 +1,122 @@
 package com.evoting.vote.service;
 
+import com.evoting.vote.anomaly.VoteAnomalyDetector;
+import com.evoting.vote.archive.BallotArchive;
+import com.evoting.vote.dto.Tally;
+import com.evoting.vote.dto.TallyReport;
 import com.evoting.vote.dto.VoteRequest;
+import com.evoting.vote.event.VoteCastEvent;
+import com.evoting.vote.exception.AlreadyVotedException;
+import com.evoting.vote.exception.ElectionArchivedException;
+import com.evoting.vote.exception.VoteNotAcknowledgedException;
+import com.evoting.vote.model.ElectionFence;
 import com.evoting.vote.model.Vote;
-import com.evoting.vote.repository.VoteRepository;
+import com.evoting.vote.store.VoteStore;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class VoteService {
 
-    private final VoteRepository voteRepository;
+    private final VoteStore voteStore;
+    private final VoterBitmapIndex voterBitmapIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BallotArchive ballotArchive;
+    private final BallotEncryptionService ballotEncryption;
+    private final ElectionFenceService electionFence;
+    private final RankedBallotService rankedBallots;
+    private final VoteAnomalyDetector anomalyDetector;
+    private final EligibilityService eligibility;
+    private final ElectionCatalog electionCatalog;
 
-    @Transactional
-    public Vote castVote(Integer voterId, VoteRequest request) {
-        // 1. Check double voting
-        if (voteRepository.existsByElectionIdAndVoterId(request.getElectionId(), voterId)) {
-            throw new RuntimeException("You have already voted in this election");
+    public Vote castVote(Integer voterId, VoteRequest request, String clientIp) {
+        if (request.getElectionId() == null || (request.getCandidateId() == null
+                && (request.getRanking() == null || request.getRanking().isEmpty()))) {
+            throw new RuntimeException("Election and candidate (or ranking) are required");
         }
+        if (ballotArchive.isSealed(request.getElectionId())) {
+            throw new ElectionArchivedException();
+        }
+        eligibility.check(voterId);
+        // Ranked ballots have each preference checked when they are packed
+        electionCatalog.validate(request.getElectionId(), request.getCandidateId());
 
-        // 2. Record Vote directly (No encryption, tracking participation in same table)
-        Vote vote = Vote.builder()
-                .electionId(request.getElectionId())
-                .voterId(voterId)
-                .candidateId(request.getCandidateId())
-                .build();
-
-        return voteRepository.save(vote);
+        // Admitted casts are waited for when the election is closed
+        electionFence.enter(request.getElectionId());
+        try {
+            Vote saved = record(voterId, request);
+            anomalyDetector.record(saved, clientIp);
+            return saved;
+        } finally {
+            electionFence.exit(request.getElectionId());
+        }
     }
 
-    public java.util.List<Vote> getUserVotes(Integer voterId) {
-        return voteRepository.findByVoterId(voterId);
+    private Vote record(Integer voterId, VoteRequest request) {
+        // 1. Check double voting: the voter's slot is claimed in memory, races across replicas are
+        // caught by the unique (election_id, voter_id) constraint
+        if (!voterBitmapIndex.claim(request.getElectionId(), voterId)) {
+            throw new AlreadyVotedException();
+        }
+
+        Vote saved;
+        try {
+            // 2. Record Vote, tracking participation in same table; elections with encrypted ballots
+            // only keep the ciphertexts
+            Vote vote = ballotEncryption.seal(rankedBallots.rank(Vote.builder()
+                    .electionId(request.getElectionId())
+                    .voterId(voterId)
+                    .candidateId(request.getCandidateId())
+                    .build(), request.getRanking()));
+
+            // 3. Returns once the vote is durable in the configured store
+            saved = voteStore.append(vote);
+        } catch (AlreadyVotedException | VoteNotAcknowledgedException e) {
+            // Unacknowledged votes may still land: keep the slot so the voter cannot vote twice
+            throw e;
+        } catch (RuntimeException e) {
+            voterBitmapIndex.release(request.getElectionId(), voterId);
+            throw e;
+        }
+
+        eventPublisher.publishEvent(new VoteCastEvent(saved));
+        return saved;
     }
 
     // INTERNAL/ADMIN ONLY
-    public java.util.Map<Integer, Long> tallyVotes(Integer electionId) {
-        java.util.List<Vote> votes = voteRepository.findByElectionId(electionId);
-        java.util.Map<Integer, Long> results = new java.util.HashMap<>();
+    public Map<Integer, Long> tallyVotes(Integer electionId) {
+        return compactTally(electionId).toMap();
+    }
+
+    public Tally compactTally(Integer electionId) {
+        return tallyReport(electionId).getTally();
+    }
 
-        for (Vote vote : votes) {
-            Integer candidateId = vote.getCandidateId();
-            results.put(candidateId, results.getOrDefault(candidateId, 0L) + 1);
+    public TallyReport tallyReport(Integer electionId) {
+        // Archived elections are counted from their columnar archive, encrypted ones by decrypting
+        // the product of their ballots once they are closed
+        TallyReport report;
+        if (ballotArchive.isArchived(electionId)) {
+            report = ballotArchive.tally(electionId);
+        } else {
+            // Closed elections are counted exactly up to their fence watermark
+            ElectionFence fence = electionFence.fence(electionId);
+            if (ballotEncryption.isEncrypted(electionId)) {
+                report = ballotEncryption.tally(electionId, fence);
+            } else if (fence != null) {
+                report = electionFence.tally(electionId, fence);
+            } else {
+                report = voteStore.tally(electionId);
+            }
         }
-        return results;
+        log.info("Tallied election {}: {} candidates, {} records scanned in {} ms",
+                electionId, report.getTally().size(), report.getRowsScanned(), report.getElapsedMillis());
+        return report;
     }
 }
@@ -0,0 +1,49 @@
+package com.evoting.vote.service;
+
+import com.evoting.vote.util.ConcurrentBitSet;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Per-election bitmap of voters who already have a vote. In jdbc mode it only short-circuits
+// repeat attempts and the unique (election_id, voter_id) constraint remains the authority;
+// in journal mode the atomic claim is the authority.
+@Service
+public class VoterBitmapIndex implements VoteIndex {
+
+    private final Map<Integer, ConcurrentBitSet> voted = new ConcurrentHashMap<>();
+
+    @Override
+    public void reset() {
+        voted.clear();
+    }
+
+    @Override
+    public void onVote(long id, int electionId, int voterId, int candidateId, long timestampMillis) {
+        markVoted(electionId, voterId);
+    }
+
+    public boolean hasVoted(Integer electionId, Integer voterId) {
+        ConcurrentBitSet bitmap = voted.get(electionId);
+        return bitmap != null && bitmap.get(voterId);
+    }
+
+    public void markVoted(Integer electionId, Integer voterId) {
+        bitmap(electionId).set(voterId);
+    }
+
+    // Atomically reserves the voter's slot; false if someone already holds it
+    public boolean claim(Integer electionId, Integer voterId) {
+        return bitmap(electionId).set(voterId);
+    }
+
+    // Gives the slot back when the vote could not be stored
+    public void release(Integer electionId, Integer voterId) {
+        bitmap(electionId).clear(voterId);
+    }
+
+    private ConcurrentBitSet bitmap(Integer electionId) {
+        return voted.computeIfAbsent(electionId, id -> new ConcurrentBitSet());
+    }
+}
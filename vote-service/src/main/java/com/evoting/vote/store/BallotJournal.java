@@ -0,0 +1,212 @@
+package com.evoting.vote.store;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Append-only log of fixed-width ballot records split over memory-mapped segment files.
+// Record layout (32 bytes): id(8) electionId(4) voterId(4) candidateId(4) timestampMillis(8) crc32(4).
+// Records are addressed by a global index; a segment file is named after the index of its first record.
+@Slf4j
+class BallotJournal implements Closeable {
+
+    static final int RECORD_SIZE = 32;
+    private static final int CRC_OFFSET = 28;
+    private static final String SUFFIX = ".seg";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private final ByteBuffer scratch = ByteBuffer.allocate(RECORD_SIZE);
+    private final CRC32 crc = new CRC32();
+    private final Object durableLock = new Object();
+
+    private volatile Segment active;
+    private long nextIndex;
+    // Records below writtenUpTo are in the mapped pages, records below durableUpTo are forced to disk
+    private volatile long writtenUpTo;
+    private volatile long durableUpTo;
+
+    BallotJournal(Path directory, int segmentBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes - segmentBytes % RECORD_SIZE;
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(p -> p.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long base = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+            segments.add(Segment.open(file, base, 0));
+        }
+        if (segments.isEmpty()) {
+            active = newSegment(0);
+            nextIndex = 0;
+        } else {
+            // Only the last segment can have a torn tail: stop at the first record whose CRC does not match
+            active = segments.get(segments.size() - 1);
+            int valid = 0;
+            while (valid < active.capacity() && isValid(active.buffer(), valid * RECORD_SIZE)) {
+                valid++;
+            }
+            nextIndex = active.base() + valid;
+            // Zero the torn tail so a later recovery cannot mistake stale bytes for records
+            for (int offset = valid * RECORD_SIZE; offset < active.capacity() * RECORD_SIZE; offset += RECORD_SIZE) {
+                if (active.buffer().getInt(offset + CRC_OFFSET) == 0 && active.buffer().getLong(offset) == 0) {
+                    break;
+                }
+                active.buffer().put(offset, new byte[RECORD_SIZE]);
+            }
+        }
+        writtenUpTo = nextIndex;
+        durableUpTo = nextIndex;
+        log.info("Ballot journal recovered {} records from {} segments in {}", nextIndex, segments.size(), directory);
+    }
+
+    synchronized long append(long id, int electionId, int voterId, int candidateId, long timestampMillis)
+            throws IOException {
+        Segment segment = active;
+        if (nextIndex - segment.base() == segment.capacity()) {
+            segment = roll();
+        }
+        scratch.clear();
+        scratch.putLong(id).putInt(electionId).putInt(voterId).putInt(candidateId).putLong(timestampMillis);
+        crc.reset();
+        crc.update(scratch.array(), 0, CRC_OFFSET);
+        scratch.putInt((int) crc.getValue());
+
+        int offset = (int) (nextIndex - segment.base()) * RECORD_SIZE;
+        segment.buffer().put(offset, scratch.array());
+        writtenUpTo = ++nextIndex;
+        return nextIndex - 1;
+    }
+
+    long writtenUpTo() {
+        return writtenUpTo;
+    }
+
+    long durableUpTo() {
+        return durableUpTo;
+    }
+
+    void flush() {
+        flush(upTo -> {
+        });
+    }
+
+    // Called periodically by a single flusher thread: one fsync covers every record appended since the last one.
+    // beforeAck gets the new durable bound after the fsync and before waiting appenders are released.
+    void flush(LongConsumer beforeAck) {
+        long target;
+        // Under the append lock, so whatever a caller does under it for the records below target is done
+        synchronized (this) {
+            target = writtenUpTo;
+        }
+        if (target == durableUpTo) {
+            return;
+        }
+        // Read after target: records in segments rolled in between were forced by roll()
+        active.buffer().force();
+        beforeAck.accept(target);
+        synchronized (durableLock) {
+            durableUpTo = target;
+            durableLock.notifyAll();
+        }
+    }
+
+    void awaitDurable(long index, long timeoutMillis) throws InterruptedException, TimeoutException {
+        if (durableUpTo > index) {
+            return;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        synchronized (durableLock) {
+            while (durableUpTo <= index) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    throw new TimeoutException("Journal record " + index + " not durable after " + timeoutMillis + " ms");
+                }
+                durableLock.wait(remaining);
+            }
+        }
+    }
+
+    // Sequential read of records [from, to) straight from the mapped pages
+    void scan(long from, long to, VoteRecordHandler handler) {
+        for (Segment segment : segments) {
+            long segmentEnd = segment.base() + segment.capacity();
+            if (segmentEnd <= from) {
+                continue;
+            }
+            if (segment.base() >= to) {
+                break;
+            }
+            ByteBuffer buffer = segment.buffer();
+            int first = (int) (Math.max(from, segment.base()) - segment.base());
+            int last = (int) (Math.min(to, segmentEnd) - segment.base());
+            for (int i = first; i < last; i++) {
+                int offset = i * RECORD_SIZE;
+                handler.onVote(buffer.getLong(offset), buffer.getInt(offset + 8), buffer.getInt(offset + 12),
+                        buffer.getInt(offset + 16), buffer.getLong(offset + 20));
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+        for (Segment segment : segments) {
+            segment.channel().close();
+        }
+    }
+
+    private Segment roll() throws IOException {
+        active.buffer().force();
+        Segment segment = newSegment(nextIndex);
+        active = segment;
+        return segment;
+    }
+
+    private Segment newSegment(long base) throws IOException {
+        Segment segment = Segment.open(directory.resolve(String.format("%020d%s", base, SUFFIX)), base, segmentBytes);
+        segments.add(segment);
+        return segment;
+    }
+
+    private boolean isValid(ByteBuffer buffer, int offset) {
+        byte[] record = new byte[CRC_OFFSET];
+        buffer.get(offset, record);
+        crc.reset();
+        crc.update(record);
+        return buffer.getInt(offset + CRC_OFFSET) == (int) crc.getValue();
+    }
+
+    private record Segment(long base, int capacity, FileChannel channel, MappedByteBuffer buffer) {
+
+        static Segment open(Path file, long base, int sizeBytes) throws IOException {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            long size = Math.max(channel.size(), sizeBytes);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            return new Segment(base, (int) (size / RECORD_SIZE), channel, buffer);
+        }
+    }
+}
@@ -0,0 +1,484 @@
+package com.evoting.vote.store;
+
+import com.evoting.vote.dto.Tally;
+import com.evoting.vote.dto.TallyReport;
+import com.evoting.vote.exception.AlreadyVotedException;
+import com.evoting.vote.exception.ElectionClosedException;
+import com.evoting.vote.exception.VoteNotAcknowledgedException;
+import com.evoting.vote.model.Vote;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+// Group commit: concurrent casts are gathered into micro-batches written with one JDBC
+// batch and one commit. Callers block until the commit covering their vote is done.
+@Component
+@ConditionalOnProperty(name = "vote.storage.mode", havingValue = "jdbc", matchIfMissing = true)
+@Slf4j
+public class JdbcVoteStore implements VoteStore {
+
+    private static final String INSERT_SQL =
+            "insert into vote (id, election_id, voter_id, candidate_id, timestamp, ballot, ranking) "
+                    + "values (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String TALLY_SQL =
+            "select candidate_id, count(*) from vote where election_id = ? group by candidate_id";
+
+    private static final String RANGE_TALLY_SQL = "select candidate_id, count(*) from vote "
+            + "where election_id = ? and id > ? and id <= ? group by candidate_id";
+
+    private static final String FENCED_SQL = "select election_id from election_fence where election_id in (%s) for update";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final VoteIdGenerator idGenerator;
+    private final List<VoteCommitListener> commitListeners;
+    // Held from id allocation to listener callbacks, so listeners see the group-commit writer's and
+    // bulk imports' votes in one id order
+    private final Object commitLock = new Object();
+    private final BlockingQueue<PendingVote> queue;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final long ackTimeoutMillis;
+
+    private final DistributionSummary batchSize;
+    private final Timer queueWait;
+    private final Timer commitTime;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public JdbcVoteStore(JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            VoteIdGenerator idGenerator,
+            List<VoteCommitListener> commitListeners,
+            MeterRegistry meterRegistry,
+            @Value("${vote.group-commit.max-batch-size:256}") int maxBatchSize,
+            @Value("${vote.group-commit.max-wait-ms:5}") long maxWaitMillis,
+            @Value("${vote.group-commit.queue-capacity:10000}") int queueCapacity,
+            @Value("${vote.group-commit.ack-timeout-ms:10000}") long ackTimeoutMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.idGenerator = idGenerator;
+        this.commitListeners = commitListeners;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.ackTimeoutMillis = ackTimeoutMillis;
+
+        this.batchSize = DistributionSummary.builder("vote.groupcommit.batch.size")
+                .description("Votes written per group commit")
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("vote.groupcommit.queue.wait")
+                .description("Time a vote waits in the queue before its batch starts")
+                .register(meterRegistry);
+        this.commitTime = Timer.builder("vote.groupcommit.commit")
+                .description("Time to write and commit one batch")
+                .register(meterRegistry);
+        meterRegistry.gauge("vote.groupcommit.queue.depth", queue, BlockingQueue::size);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = new Thread(this::run, "vote-group-commit");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    @Override
+    public Vote append(Vote vote) {
+        PendingVote pending = new PendingVote(vote, new CompletableFuture<>(), System.nanoTime());
+        if (!queue.offer(pending)) {
+            throw new RuntimeException("Vote service is overloaded, please retry");
+        }
+        try {
+            return pending.result().get(ackTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Failed to record vote", e.getCause());
+        } catch (TimeoutException e) {
+            // Still queued or committing
+            throw new VoteNotAcknowledgedException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new VoteNotAcknowledgedException(e);
+        }
+    }
+
+    // GROUP BY runs in the database over idx_vote_election_candidate: memory is O(candidates), not O(votes)
+    @Override
+    public TallyReport tally(Integer electionId) {
+        return tally(electionId, TALLY_SQL, electionId);
+    }
+
+    // Plain consistent read, the id range is resolved inside the same index (InnoDB keys carry the id)
+    @Override
+    public TallyReport tally(Integer electionId, long afterId, long upToId) {
+        return tally(electionId, RANGE_TALLY_SQL, electionId, afterId, upToId);
+    }
+
+    @Override
+    public Vote find(Integer electionId, Integer voterId) {
+        return find("select id, candidate_id, timestamp from vote where election_id = ? and voter_id = ?",
+                electionId, voterId);
+    }
+
+    protected Vote find(String sql, Integer electionId, Integer voterId) {
+        List<Vote> votes = jdbcTemplate.query(sql, (rs, rowNum) -> Vote.builder()
+                .id(rs.getLong(1))
+                .electionId(electionId)
+                .voterId(voterId)
+                .candidateId(rs.getObject(2, Integer.class))
+                .timestamp(rs.getTimestamp(3).toLocalDateTime())
+                .build(), electionId, voterId);
+        return votes.isEmpty() ? null : votes.get(0);
+    }
+
+    @Override
+    public long maxId(Integer electionId) {
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from vote where election_id = ?", Long.class,
+                electionId);
+        return maxId != null ? maxId : 0L;
+    }
+
+    protected TallyReport tally(Integer electionId, String sql, Object... args) {
+        long start = System.nanoTime();
+        Tally.Builder results = Tally.builder();
+        long[] scanned = new long[1];
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+            long votes = rs.getLong(2);
+            int candidateId = rs.getInt(1);
+            if (!rs.wasNull()) {
+                results.add(candidateId, votes);
+            }
+            scanned[0] += votes;
+        }, args);
+        return TallyReport.builder()
+                .electionId(electionId)
+                .tally(results.build())
+                .rowsScanned(scanned[0])
+                .elapsedMillis((System.nanoTime() - start) / 1_000_000)
+                .build();
+    }
+
+    @Override
+    public void scanRankedBallots(Integer electionId, long upToId, Consumer<byte[]> rankings) {
+        scanRankings("select ranking from vote where election_id = ? and id <= ? and ranking is not null",
+                electionId, upToId, rankings);
+    }
+
+    protected void scanRankings(String sql, Integer electionId, long upToId, Consumer<byte[]> rankings) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Integer.MIN_VALUE);
+            ps.setInt(1, electionId);
+            ps.setLong(2, upToId);
+            return ps;
+        }, (RowCallbackHandler) rs -> rankings.accept(rs.getBytes(1)));
+    }
+
+    // Covered by idx_vote_election_candidate, whose entries carry the primary key
+    @Override
+    public void scanBallots(Integer electionId, long upToId, VoteRecordHandler handler) {
+        scanBallots("select id, candidate_id from vote where election_id = ? and id <= ?", electionId, upToId,
+                handler);
+    }
+
+    protected void scanBallots(String sql, Integer electionId, long upToId, VoteRecordHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Integer.MIN_VALUE);
+            ps.setInt(1, electionId);
+            ps.setLong(2, upToId);
+            return ps;
+        }, (RowCallbackHandler) rs -> handler.onVote(rs.getLong(1), electionId, 0, rs.getInt(2), 0L));
+    }
+
+    // Primary key range, so a sync of the last few seconds reads only those rows
+    @Override
+    public void scanElection(Integer electionId, long afterId, long upToId, VoteRecordHandler handler) {
+        scanElection("select id, election_id, voter_id, candidate_id, timestamp from vote "
+                + "where id > ? and id <= ? and election_id = ? order by id", electionId, afterId, upToId, handler);
+    }
+
+    protected void scanElection(String sql, Integer electionId, long afterId, long upToId,
+            VoteRecordHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Integer.MIN_VALUE);
+            ps.setLong(1, afterId);
+            ps.setLong(2, upToId);
+            ps.setInt(3, electionId);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            Timestamp timestamp = rs.getTimestamp(5);
+            handler.onVote(rs.getLong(1), rs.getInt(2), rs.getInt(3), rs.getInt(4),
+                    timestamp != null ? timestamp.getTime() : 0L);
+        });
+    }
+
+    @Override
+    public void scan(VoteRecordHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "select id, election_id, voter_id, candidate_id, timestamp from vote order by id",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // Connector/J streams rows one by one instead of buffering the whole result
+            ps.setFetchSize(Integer.MIN_VALUE);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            Timestamp timestamp = rs.getTimestamp(5);
+            handler.onVote(rs.getLong(1), rs.getInt(2), rs.getInt(3), rs.getInt(4),
+                    timestamp != null ? timestamp.getTime() : 0L);
+        });
+    }
+
+    private void run() {
+        List<PendingVote> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingVote first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < maxBatchSize) {
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    PendingVote next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("Group commit failed for {} votes", batch.size(), e);
+                batch.forEach(p -> p.result().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingVote> batch) {
+        synchronized (commitLock) {
+            flushLocked(batch);
+        }
+    }
+
+    private void flushLocked(List<PendingVote> batch) {
+        long now = System.nanoTime();
+        LocalDateTime timestamp = LocalDateTime.now();
+
+        // A voter racing themselves can land twice in one batch; only the first is written
+        List<PendingVote> writable = new ArrayList<>(batch.size());
+        Set<Long> seen = new HashSet<>();
+        for (PendingVote pending : batch) {
+            queueWait.record(now - pending.enqueuedAt(), TimeUnit.NANOSECONDS);
+            Vote vote = pending.vote();
+            if (seen.add(((long) vote.getElectionId() << 32) | (vote.getVoterId() & 0xFFFFFFFFL))) {
+                // Allocated here, on the single writer thread, so id order is commit order on this node
+                vote.setId(idGenerator.nextId());
+                vote.setTimestamp(timestamp);
+                writable.add(pending);
+            } else {
+                pending.result().completeExceptionally(new AlreadyVotedException());
+            }
+        }
+        batchSize.record(writable.size());
+
+        List<Vote> votes = writable.stream().map(PendingVote::vote).toList();
+        try {
+            commitTime.record(() -> insertBatch(votes));
+            votes.forEach(this::committed);
+            writable.forEach(pending -> pending.result().complete(pending.vote()));
+        } catch (ElectionClosedException | DataIntegrityViolationException e) {
+            // One duplicate or closed election poisons the whole JDBC batch; replay it row by row to find the culprits
+            log.debug("Duplicate vote or closed election in batch of {}, retrying rows individually", writable.size());
+            for (PendingVote pending : writable) {
+                try {
+                    if (insertSingle(pending.vote())) {
+                        committed(pending.vote());
+                        pending.result().complete(pending.vote());
+                    } else {
+                        pending.result().completeExceptionally(new AlreadyVotedException());
+                    }
+                } catch (RuntimeException single) {
+                    pending.result().completeExceptionally(single);
+                }
+            }
+        }
+    }
+
+    // Bulk path: bypasses the group-commit queue and writes the caller's batch in one transaction
+    @Override
+    public boolean[] appendAll(List<Vote> votes) {
+        synchronized (commitLock) {
+            return appendAllLocked(votes);
+        }
+    }
+
+    private boolean[] appendAllLocked(List<Vote> votes) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Vote vote : votes) {
+            vote.setId(idGenerator.nextId());
+            if (vote.getTimestamp() == null) {
+                vote.setTimestamp(now);
+            }
+        }
+        boolean[] stored = new boolean[votes.size()];
+        try {
+            insertBatch(votes);
+            Arrays.fill(stored, true);
+        } catch (ElectionClosedException | DataIntegrityViolationException e) {
+            for (int i = 0; i < votes.size(); i++) {
+                try {
+                    stored[i] = insertSingle(votes.get(i));
+                } catch (ElectionClosedException closed) {
+                    stored[i] = false;
+                }
+            }
+        }
+        for (int i = 0; i < votes.size(); i++) {
+            if (stored[i]) {
+                committed(votes.get(i));
+            }
+        }
+        return stored;
+    }
+
+    protected void committed(Vote vote) {
+        for (VoteCommitListener listener : commitListeners) {
+            try {
+                listener.onCommitted(vote);
+            } catch (RuntimeException e) {
+                log.error("Commit listener {} failed for vote {}", listener.getClass().getSimpleName(), vote.getId(), e);
+            }
+        }
+    }
+
+    // Writes the whole batch in one transaction; a duplicate voter fails it with DataIntegrityViolationException,
+    // a closed election with ElectionClosedException
+    protected void insertBatch(List<Vote> votes) {
+        transactionTemplate.executeWithoutResult(status -> {
+            checkOpen(votes);
+            jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    bind(ps, votes.get(i));
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return votes.size();
+                }
+            });
+        });
+    }
+
+    // False when the (election_id, voter_id) constraint rejects the row; ElectionClosedException when the
+    // election is fenced
+    protected boolean insertSingle(Vote vote) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                checkOpen(List.of(vote));
+                jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, vote));
+            });
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    // First statement of every write transaction. The lock on the elections' fence rows, or on the gap where
+    // they would go, makes ElectionFenceService.close wait for this transaction before it takes its watermark,
+    // and a transaction that starts after the close sees the fence: no vote commits past a close on any
+    // replica. Gap locks do not conflict with each other, so open elections' batches do not serialize here.
+    // Relies on InnoDB's gap locks under REPEATABLE READ, MySQL's default isolation.
+    protected void checkOpen(List<Vote> votes) {
+        Set<Integer> elections = new TreeSet<>();
+        for (Vote vote : votes) {
+            elections.add(vote.getElectionId());
+        }
+        checkOpen(elections);
+    }
+
+    protected void checkOpen(Integer electionId) {
+        checkOpen(Set.of(electionId));
+    }
+
+    private void checkOpen(Set<Integer> elections) {
+        String sql = String.format(FENCED_SQL, String.join(", ", Collections.nCopies(elections.size(), "?")));
+        if (!jdbcTemplate.queryForList(sql, Integer.class, elections.toArray()).isEmpty()) {
+            throw new ElectionClosedException();
+        }
+    }
+
+    private static void bind(PreparedStatement ps, Vote vote) throws SQLException {
+        ps.setLong(1, vote.getId());
+        ps.setInt(2, vote.getElectionId());
+        ps.setInt(3, vote.getVoterId());
+        ps.setObject(4, vote.getCandidateId(), Types.INTEGER);
+        ps.setTimestamp(5, Timestamp.valueOf(vote.getTimestamp()));
+        ps.setBytes(6, vote.getBallot());
+        ps.setBytes(7, vote.getRanking());
+    }
+
+    private record PendingVote(Vote vote, CompletableFuture<Vote> result, long enqueuedAt) {
+    }
+}
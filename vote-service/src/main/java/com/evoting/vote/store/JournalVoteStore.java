@@ -0,0 +1,409 @@
+package com.evoting.vote.store;
+
+import com.evoting.vote.dto.Tally;
+import com.evoting.vote.dto.TallyReport;
+import com.evoting.vote.exception.VoteNotAcknowledgedException;
+import com.evoting.vote.model.Vote;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// Ballots are appended to a memory-mapped journal and acknowledged once a group fsync covers them.
+// The vote table becomes an asynchronous projection fed from the journal, off the castVote path.
+// Double votes are rejected by VoterBitmapIndex, so this mode assumes one vote-service node per journal.
+@Component
+@ConditionalOnProperty(name = "vote.storage.mode", havingValue = "journal")
+@Slf4j
+public class JournalVoteStore implements VoteStore {
+
+    private static final String PROJECT_SQL = "insert into vote (id, election_id, voter_id, candidate_id, timestamp) "
+            + "values (?, ?, ?, ?, ?)";
+    private static final int MAX_DENSE_CANDIDATE = 1 << 16;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final VoteIdGenerator idGenerator;
+    private final List<VoteCommitListener> commitListeners;
+    private final Path directory;
+    private final Path checkpointFile;
+    private final int segmentBytes;
+    private final long flushIntervalMillis;
+    private final long projectionIntervalMillis;
+    private final int projectionBatchSize;
+    private final long ackTimeoutMillis;
+
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2, r -> {
+        Thread thread = new Thread(r, "ballot-journal");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Appended votes waiting for the fsync that covers them, in journal order
+    private final Queue<Appended> undelivered = new ConcurrentLinkedQueue<>();
+    private final AtomicLong duplicates = new AtomicLong();
+
+    private BallotJournal journal;
+    private volatile long projectedUpTo;
+
+    public JournalVoteStore(JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            VoteIdGenerator idGenerator,
+            List<VoteCommitListener> commitListeners,
+            @Value("${vote.journal.dir:data/journal}") String directory,
+            @Value("${vote.journal.segment-size-mb:64}") int segmentSizeMb,
+            @Value("${vote.journal.flush-interval-ms:2}") long flushIntervalMillis,
+            @Value("${vote.journal.projection-interval-ms:200}") long projectionIntervalMillis,
+            @Value("${vote.journal.projection-batch-size:1000}") int projectionBatchSize,
+            @Value("${vote.journal.ack-timeout-ms:10000}") long ackTimeoutMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.idGenerator = idGenerator;
+        this.commitListeners = commitListeners;
+        this.directory = Paths.get(directory);
+        this.checkpointFile = this.directory.resolve("projection.checkpoint");
+        this.segmentBytes = segmentSizeMb * 1024 * 1024;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.projectionIntervalMillis = projectionIntervalMillis;
+        this.projectionBatchSize = projectionBatchSize;
+        this.ackTimeoutMillis = ackTimeoutMillis;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        journal = new BallotJournal(directory, segmentBytes);
+        projectedUpTo = readCheckpoint();
+
+        // Bring the projection up to date before anything reads the vote table
+        project();
+
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::projectQuietly, projectionIntervalMillis, projectionIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        journal.flush(this::deliver);
+        project();
+        journal.close();
+    }
+
+    @Override
+    public Vote append(Vote vote) {
+        // Journal records are fixed size and have no room for preferences
+        if (vote.getRanking() != null) {
+            throw new RuntimeException("Ranked ballots need vote.storage.mode jdbc or ledger");
+        }
+        long now = System.currentTimeMillis();
+        long index;
+        try {
+            // Allocated under the journal lock so ids are monotonic in journal order
+            synchronized (journal) {
+                long id = idGenerator.nextId();
+                index = journal.append(id, vote.getElectionId(), vote.getVoterId(), vote.getCandidateId(), now);
+                vote.setId(id);
+                vote.setTimestamp(LocalDateTime.ofInstant(Instant.ofEpochMilli(now), ZoneId.systemDefault()));
+                undelivered.add(new Appended(index, vote));
+            }
+            journal.awaitDurable(index, ackTimeoutMillis);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append vote to journal", e);
+        } catch (TimeoutException e) {
+            // The record is in the journal and becomes durable with a later fsync
+            throw new VoteNotAcknowledgedException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new VoteNotAcknowledgedException(e);
+        }
+        return vote;
+    }
+
+    // Duplicates are filtered by the caller's bitmap claims, so every record is stored
+    @Override
+    public boolean[] appendAll(List<Vote> votes) {
+        long last = -1;
+        try {
+            synchronized (journal) {
+                for (Vote vote : votes) {
+                    long timestamp = vote.getTimestamp() != null
+                            ? vote.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                            : System.currentTimeMillis();
+                    long id = idGenerator.nextId();
+                    last = journal.append(id, vote.getElectionId(), vote.getVoterId(), vote.getCandidateId(), timestamp);
+                    vote.setId(id);
+                    vote.setTimestamp(LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault()));
+                    undelivered.add(new Appended(last, vote));
+                }
+            }
+            if (last >= 0) {
+                journal.awaitDurable(last, ackTimeoutMillis);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append votes to journal", e);
+        } catch (TimeoutException e) {
+            throw new VoteNotAcknowledgedException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new VoteNotAcknowledgedException(e);
+        }
+        boolean[] stored = new boolean[votes.size()];
+        Arrays.fill(stored, true);
+        return stored;
+    }
+
+    // On the flusher thread between the fsync and the ack, so listeners see only durable votes, in
+    // journal order, and a vote whose ack timed out is still delivered once its fsync happens
+    private void deliver(long durableUpTo) {
+        Appended next;
+        while ((next = undelivered.peek()) != null && next.index() < durableUpTo) {
+            undelivered.poll();
+            for (VoteCommitListener listener : commitListeners) {
+                try {
+                    listener.onCommitted(next.vote());
+                } catch (RuntimeException e) {
+                    log.error("Commit listener {} failed for vote {}", listener.getClass().getSimpleName(),
+                            next.vote().getId(), e);
+                }
+            }
+        }
+    }
+
+    // Durable records only: the same votes listeners and callers have been told about
+    @Override
+    public TallyReport tally(Integer electionId) {
+        long start = System.nanoTime();
+        long end = journal.durableUpTo();
+        Accumulator accumulator = new Accumulator(electionId, Long.MIN_VALUE, Long.MAX_VALUE);
+        journal.scan(0, end, accumulator);
+        return TallyReport.builder()
+                .electionId(electionId)
+                .tally(accumulator.tally())
+                .rowsScanned(end)
+                .elapsedMillis((System.nanoTime() - start) / 1_000_000)
+                .build();
+    }
+
+    // Full scan like maxId; only called for the rare cast whose acknowledgement was lost
+    @Override
+    public Vote find(Integer electionId, Integer voterId) {
+        Vote[] found = new Vote[1];
+        journal.scan(0, journal.durableUpTo(), (id, election, voter, candidateId, timestamp) -> {
+            if (election == electionId && voter == voterId) {
+                found[0] = Vote.builder()
+                        .id(id)
+                        .electionId(election)
+                        .voterId(voter)
+                        .candidateId(candidateId)
+                        .timestamp(LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault()))
+                        .build();
+            }
+        });
+        return found[0];
+    }
+
+    @Override
+    public long maxId(Integer electionId) {
+        long[] maxId = new long[1];
+        journal.scan(0, journal.durableUpTo(), (id, election, voterId, candidateId, timestamp) -> {
+            if (election == electionId) {
+                maxId[0] = Math.max(maxId[0], id);
+            }
+        });
+        return maxId[0];
+    }
+
+    // append() refuses ranked ballots, so there are none to stream
+    @Override
+    public void scanRankedBallots(Integer electionId, long upToId, Consumer<byte[]> rankings) {
+    }
+
+    @Override
+    public void scanBallots(Integer electionId, long upToId, VoteRecordHandler handler) {
+        journal.scan(0, journal.durableUpTo(), (id, election, voterId, candidateId, timestamp) -> {
+            if (election == electionId && id <= upToId) {
+                handler.onVote(id, election, 0, candidateId, 0L);
+            }
+        });
+    }
+
+    // The journal is in id order but not indexed by id, so this is still a full scan
+    @Override
+    public TallyReport tally(Integer electionId, long afterId, long upToId) {
+        long start = System.nanoTime();
+        long end = journal.durableUpTo();
+        Accumulator accumulator = new Accumulator(electionId, afterId, upToId);
+        journal.scan(0, end, accumulator);
+        return TallyReport.builder()
+                .electionId(electionId)
+                .tally(accumulator.tally())
+                .rowsScanned(end)
+                .elapsedMillis((System.nanoTime() - start) / 1_000_000)
+                .build();
+    }
+
+    @Override
+    public void scanElection(Integer electionId, long afterId, long upToId, VoteRecordHandler handler) {
+        journal.scan(0, journal.durableUpTo(), (id, election, voterId, candidateId, timestamp) -> {
+            if (election == electionId && id > afterId && id <= upToId) {
+                handler.onVote(id, election, voterId, candidateId, timestamp);
+            }
+        });
+    }
+
+    @Override
+    public void scan(VoteRecordHandler handler) {
+        journal.scan(0, journal.durableUpTo(), handler);
+    }
+
+    private synchronized void project() {
+        long to = journal.durableUpTo();
+        while (projectedUpTo < to) {
+            long from = projectedUpTo;
+            long end = Math.min(to, from + projectionBatchSize);
+            List<Object[]> rows = new ArrayList<>((int) (end - from));
+            journal.scan(from, end, (id, electionId, voterId, candidateId, timestamp) -> rows.add(
+                    new Object[] { id, electionId, voterId, candidateId, new Timestamp(timestamp) }));
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(PROJECT_SQL, rows));
+            } catch (DataIntegrityViolationException e) {
+                rows.forEach(this::projectSingle);
+            }
+            writeCheckpoint(end);
+            projectedUpTo = end;
+        }
+    }
+
+    // A conflicting row is either this record, projected before a crash lost the checkpoint, or a second
+    // vote of the same voter that got past the bitmap. The second is reported, never merged away.
+    private void projectSingle(Object[] row) {
+        try {
+            jdbcTemplate.update(PROJECT_SQL, row);
+        } catch (DuplicateKeyException e) {
+            List<Long> existing = jdbcTemplate.queryForList(
+                    "select id from vote where id = ? or (election_id = ? and voter_id = ?)", Long.class,
+                    row[0], row[1], row[2]);
+            if (!existing.equals(List.of((Long) row[0]))) {
+                duplicates.incrementAndGet();
+                log.error("Journal record {} is a second vote of voter {} in election {} (vote table has {}); "
+                        + "not projected, the journal tally counts it", row[0], row[2], row[1], existing);
+            }
+        }
+    }
+
+    // Records the projection refused as double votes since startup
+    public long duplicates() {
+        return duplicates.get();
+    }
+
+    private void projectQuietly() {
+        try {
+            project();
+        } catch (Exception e) {
+            log.error("Ballot projection to MySQL failed at record {}, will retry", projectedUpTo, e);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            journal.flush(this::deliver);
+        } catch (Exception e) {
+            log.error("Ballot journal flush failed", e);
+        }
+    }
+
+    private long readCheckpoint() throws IOException {
+        if (!Files.exists(checkpointFile)) {
+            return 0;
+        }
+        return Long.parseLong(Files.readString(checkpointFile, StandardCharsets.UTF_8).trim());
+    }
+
+    private void writeCheckpoint(long index) {
+        try {
+            Path tmp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+            Files.writeString(tmp, Long.toString(index), StandardCharsets.UTF_8);
+            Files.move(tmp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to persist projection checkpoint", e);
+        }
+    }
+
+    private record Appended(long index, Vote vote) {
+    }
+
+    // Counts one election's records without boxing for the common small candidate ids
+    private static final class Accumulator implements VoteRecordHandler {
+        private final int electionId;
+        private final long afterId;
+        private final long upToId;
+        private long[] dense = new long[64];
+        private final Map<Integer, Long> sparse = new HashMap<>();
+
+        Accumulator(int electionId, long afterId, long upToId) {
+            this.electionId = electionId;
+            this.afterId = afterId;
+            this.upToId = upToId;
+        }
+
+        @Override
+        public void onVote(long id, int election, int voterId, int candidateId, long timestampMillis) {
+            if (election != electionId || id <= afterId || id > upToId) {
+                return;
+            }
+            if (candidateId >= 0 && candidateId < MAX_DENSE_CANDIDATE) {
+                if (candidateId >= dense.length) {
+                    dense = Arrays.copyOf(dense, Math.max(candidateId + 1, dense.length * 2));
+                }
+                dense[candidateId]++;
+            } else {
+                sparse.merge(candidateId, 1L, Long::sum);
+            }
+        }
+
+        Tally tally() {
+            Tally.Builder tally = Tally.builder();
+            for (int candidateId = 0; candidateId < dense.length; candidateId++) {
+                if (dense[candidateId] != 0) {
+                    tally.add(candidateId, dense[candidateId]);
+                }
+            }
+            sparse.forEach(tally::add);
+            return tally.build();
+        }
+    }
+}
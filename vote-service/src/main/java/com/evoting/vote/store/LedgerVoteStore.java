@@ -0,0 +1,308 @@
+package com.evoting.vote.store;
+
+import com.evoting.vote.crypto.KeyWrap;
+import com.evoting.vote.dto.TallyReport;
+import com.evoting.vote.exception.ElectionClosedException;
+import com.evoting.vote.model.Vote;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+// Same group commit as the jdbc store, but a vote becomes two unlinked rows: a participation record
+// (election, voter) and an anonymous ballot (election, candidate). The vote's transaction writes the
+// participation record and a pooled copy of the ballot sealed under vote.ledger.pool-key, which the
+// database never sees, so neither the tables nor the binlog pair a voter with a candidate. Once at least
+// vote.ledger.min-anonymity-set ballots of an election are pooled, a separate transaction opens them,
+// shuffles them and moves them into ballot_box with random ids and one batch id: a ballot can be traced
+// to a set of that many voters at most, however slowly votes arrive. Pooled ballots are durable, so the
+// fence can move the remainder whichever replica took them. Tallies read the narrow ballot_box table and
+// never touch voter data; an open election's running count leaves out the pool.
+@Component
+@ConditionalOnProperty(name = "vote.storage.mode", havingValue = "ledger")
+@Slf4j
+public class LedgerVoteStore extends JdbcVoteStore {
+
+    private static final String PARTICIPATION_SQL =
+            "insert into participation (id, election_id, voter_id, timestamp) values (?, ?, ?, ?)";
+
+    private static final String POOL_SQL = "insert into ballot_pool (id, election_id, sealed) values (?, ?, ?)";
+
+    // Locks the pooled rows and the gap after them: new ballots of the election wait for the move to commit
+    private static final String POOLED_SQL = "select sealed from ballot_pool where election_id = ? for update";
+
+    private static final String BALLOT_SQL =
+            "insert into ballot_box (id, election_id, candidate_id, batch_id, ranking) values (?, ?, ?, ?, ?)";
+
+    private static final String TALLY_SQL =
+            "select candidate_id, count(*) from ballot_box where election_id = ? group by candidate_id";
+
+    // batch_id is an id taken when the batch was moved in, above every vote id of the batch, so a fence
+    // watermark or checkpoint above it covers the whole batch
+    private static final String RANGE_TALLY_SQL = "select candidate_id, count(*) from ballot_box "
+            + "where election_id = ? and batch_id > ? and batch_id <= ? group by candidate_id";
+
+    private static final int MAX_RANKING_BYTES = 255;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final VoteIdGenerator idGenerator;
+    private final int minAnonymitySet;
+    private final SecretKey poolKey;
+    private final Random random = new SecureRandom();
+
+    // Elections this replica pooled ballots for; another replica's leftovers are moved by the fence at the
+    // latest
+    private final Set<Integer> pooledElections = ConcurrentHashMap.newKeySet();
+
+    public LedgerVoteStore(JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            VoteIdGenerator idGenerator,
+            List<VoteCommitListener> commitListeners,
+            MeterRegistry meterRegistry,
+            @Value("${vote.group-commit.max-batch-size:256}") int maxBatchSize,
+            @Value("${vote.group-commit.max-wait-ms:5}") long maxWaitMillis,
+            @Value("${vote.group-commit.queue-capacity:10000}") int queueCapacity,
+            @Value("${vote.group-commit.ack-timeout-ms:10000}") long ackTimeoutMillis,
+            @Value("${vote.ledger.min-anonymity-set:100}") int minAnonymitySet,
+            @Value("${vote.ledger.pool-key:}") String poolKey) {
+        super(jdbcTemplate, transactionTemplate, idGenerator, commitListeners, meterRegistry, maxBatchSize,
+                maxWaitMillis, queueCapacity, ackTimeoutMillis);
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.idGenerator = idGenerator;
+        this.minAnonymitySet = minAnonymitySet;
+        if (poolKey.isBlank()) {
+            throw new IllegalStateException("vote.storage.mode=ledger requires vote.ledger.pool-key");
+        }
+        this.poolKey = KeyWrap.masterKey(poolKey);
+    }
+
+    @Override
+    public TallyReport tally(Integer electionId) {
+        return tally(electionId, TALLY_SQL, electionId);
+    }
+
+    @Override
+    public TallyReport tally(Integer electionId, long afterId, long upToId) {
+        return tally(electionId, RANGE_TALLY_SQL, electionId, afterId, upToId);
+    }
+
+    // Participation only: the ballot is not linked to the voter
+    @Override
+    public Vote find(Integer electionId, Integer voterId) {
+        return find("select id, null, timestamp from participation where election_id = ? and voter_id = ?",
+                electionId, voterId);
+    }
+
+    // Batch ids are taken on whichever replica moved the batch in, so they count as well
+    @Override
+    public long maxId(Integer electionId) {
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from participation where election_id = ?",
+                Long.class, electionId);
+        return Math.max(maxId != null ? maxId : 0L, lastBatchId(electionId));
+    }
+
+    // The latest batch stays out of checkpoints: the fence may still fold the last pooled ballots
+    // into it, and they must be counted together
+    @Override
+    public long checkpointHorizon(Integer electionId, long horizon) {
+        long lastBatchId = lastBatchId(electionId);
+        return lastBatchId > 0 ? Math.min(horizon, lastBatchId - 1) : horizon;
+    }
+
+    // Moves whatever is still pooled in under the watermark. Fewer than the minimum are folded into the
+    // latest batch rather than left as a small batch of their own; only an election with fewer ballots than
+    // the minimum in total ends up with a smaller set.
+    @Override
+    public void fence(Integer electionId, long watermark) {
+        List<byte[]> pooled = jdbcTemplate.queryForList(POOLED_SQL, byte[].class, electionId);
+        if (!pooled.isEmpty()) {
+            long lastBatchId = lastBatchId(electionId);
+            if (pooled.size() < minAnonymitySet && lastBatchId > 0) {
+                jdbcTemplate.update("update ballot_box set batch_id = ? where election_id = ? and batch_id = ?",
+                        watermark, electionId, lastBatchId);
+            }
+            move(electionId, pooled, watermark);
+        }
+        pooledElections.remove(electionId);
+    }
+
+    // Skips closed elections: their pool is moved by the fence
+    @Scheduled(fixedDelayString = "${vote.ledger.move-interval-ms:1000}",
+            initialDelayString = "${vote.ledger.move-interval-ms:1000}")
+    public void moveBatches() {
+        for (Integer electionId : pooledElections) {
+            try {
+                Boolean done = transactionTemplate.execute(status -> {
+                    checkOpen(electionId);
+                    List<byte[]> pooled = jdbcTemplate.queryForList(POOLED_SQL, byte[].class, electionId);
+                    if (pooled.size() < minAnonymitySet) {
+                        return pooled.isEmpty();
+                    }
+                    move(electionId, pooled, idGenerator.nextId());
+                    return true;
+                });
+                if (Boolean.TRUE.equals(done)) {
+                    pooledElections.remove(electionId);
+                }
+            } catch (ElectionClosedException e) {
+                pooledElections.remove(electionId);
+            } catch (RuntimeException e) {
+                log.error("Moving the pooled ballots of election {} failed", electionId, e);
+            }
+        }
+    }
+
+    // Runs with the pooled rows locked: they are all deleted, so none is moved twice
+    private void move(Integer electionId, List<byte[]> pooled, long batchId) {
+        List<Object[]> ballots = new ArrayList<>(pooled.size());
+        for (byte[] sealed : pooled) {
+            ByteBuffer plain = ByteBuffer.wrap(KeyWrap.open(poolKey, "ballot_pool:" + electionId, sealed));
+            int candidateId = plain.getInt();
+            int rankingLength = Byte.toUnsignedInt(plain.get());
+            byte[] ranking = rankingLength > 0 ? new byte[rankingLength] : null;
+            if (ranking != null) {
+                plain.get(ranking);
+            }
+            ballots.add(new Object[] { ballotId(), electionId, candidateId >= 0 ? candidateId : null, batchId,
+                    ranking });
+        }
+        Collections.shuffle(ballots, random);
+        jdbcTemplate.batchUpdate(BALLOT_SQL, ballots);
+        jdbcTemplate.update("delete from ballot_pool where election_id = ?", electionId);
+    }
+
+    // Candidate (-1 for none) and ranking padded to the longest a ballot can have
+    private byte[] seal(Vote vote) {
+        byte[] ranking = vote.getRanking() != null ? vote.getRanking() : new byte[0];
+        if (ranking.length > MAX_RANKING_BYTES) {
+            throw new IllegalArgumentException("Ranking of " + ranking.length + " bytes does not fit a ballot");
+        }
+        ByteBuffer plain = ByteBuffer.allocate(5 + MAX_RANKING_BYTES)
+                .putInt(vote.getCandidateId() != null ? vote.getCandidateId() : -1)
+                .put((byte) ranking.length)
+                .put(ranking);
+        return KeyWrap.seal(poolKey, "ballot_pool:" + vote.getElectionId(), plain.array());
+    }
+
+    private long lastBatchId(Integer electionId) {
+        Long lastBatchId = jdbcTemplate.queryForObject("select max(batch_id) from ballot_box where election_id = ?",
+                Long.class, electionId);
+        return lastBatchId != null ? lastBatchId : 0L;
+    }
+
+    @Override
+    public void scanRankedBallots(Integer electionId, long upToId, Consumer<byte[]> rankings) {
+        scanRankings("select ranking from ballot_box where election_id = ? and batch_id <= ? and ranking is not null",
+                electionId, upToId, rankings);
+    }
+
+    // Ballot ids, not vote ids: ballots cannot be linked back to their votes
+    @Override
+    public void scanBallots(Integer electionId, long upToId, VoteRecordHandler handler) {
+        scanBallots("select id, candidate_id from ballot_box where election_id = ? and batch_id <= ?", electionId,
+                upToId, handler);
+    }
+
+    @Override
+    public void scanElection(Integer electionId, long afterId, long upToId, VoteRecordHandler handler) {
+        scanElection("select id, election_id, voter_id, 0, timestamp from participation "
+                + "where id > ? and id <= ? and election_id = ? order by id", electionId, afterId, upToId, handler);
+    }
+
+    // Participation only: indexes rebuilt from the ledger see candidate 0, like encrypted ballots
+    @Override
+    public void scan(VoteRecordHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "select id, election_id, voter_id, timestamp from participation order by id",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Integer.MIN_VALUE);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            Timestamp timestamp = rs.getTimestamp(4);
+            handler.onVote(rs.getLong(1), rs.getInt(2), rs.getInt(3), 0,
+                    timestamp != null ? timestamp.getTime() : 0L);
+        });
+    }
+
+    @Override
+    protected void insertBatch(List<Vote> votes) {
+        List<Object[]> participation = new ArrayList<>(votes.size());
+        List<Object[]> ballots = new ArrayList<>(votes.size());
+        for (Vote vote : votes) {
+            participation.add(new Object[] { vote.getId(), vote.getElectionId(), vote.getVoterId(),
+                    Timestamp.valueOf(vote.getTimestamp()) });
+            ballots.add(new Object[] { ballotId(), vote.getElectionId(), seal(vote) });
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            checkOpen(votes);
+            jdbcTemplate.batchUpdate(PARTICIPATION_SQL, participation);
+            jdbcTemplate.batchUpdate(POOL_SQL, ballots);
+        });
+        for (Vote vote : votes) {
+            pooledElections.add(vote.getElectionId());
+        }
+    }
+
+    // Only reached when a batch hit a duplicate voter, i.e. a race with another replica. The ballot is
+    // pooled like any other, so it joins the same anonymity set as its batch would have.
+    @Override
+    protected boolean insertSingle(Vote vote) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                checkOpen(List.of(vote));
+                jdbcTemplate.update(PARTICIPATION_SQL, vote.getId(), vote.getElectionId(), vote.getVoterId(),
+                        Timestamp.valueOf(vote.getTimestamp()));
+                jdbcTemplate.update(POOL_SQL, ballotId(), vote.getElectionId(), seal(vote));
+            });
+            pooledElections.add(vote.getElectionId());
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    // Random rather than sequential, so ballot ids follow neither the participation rows nor each other
+    private long ballotId() {
+        long id;
+        do {
+            id = random.nextLong() & Long.MAX_VALUE;
+        } while (id == 0);
+        return id;
+    }
+
+    // Listeners get the participation record, so receipts match the leaves the Merkle log reads back
+    @Override
+    protected void committed(Vote vote) {
+        Vote participation = Vote.builder()
+                .id(vote.getId())
+                .electionId(vote.getElectionId())
+                .voterId(vote.getVoterId())
+                .timestamp(vote.getTimestamp())
+                .build();
+        super.committed(participation);
+        vote.setReceipt(participation.getReceipt());
+    }
+}
@@ -0,0 +1,9 @@
+package com.evoting.vote.store;
+
+import com.evoting.vote.model.Vote;
+
+// Called by the store for every committed vote, in id order, before the caller is acknowledged.
+// Runs on the store's ordering thread (group-commit writer or journal flusher), so it must be cheap.
+public interface VoteCommitListener {
+    void onCommitted(Vote vote);
+}
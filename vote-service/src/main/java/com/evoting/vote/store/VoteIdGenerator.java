@@ -0,0 +1,55 @@
+package com.evoting.vote.store;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Time-ordered 64-bit ids: 41 bits of milliseconds since 2024-01-01, 10 bits of node id and a
+// 12-bit per-millisecond sequence. Ids are allocated without a database round trip, so inserts
+// can be batched, and stay unique across replicas as long as each one has its own node id, which is
+// why vote.id.node-id has no fallback: two replicas that picked the same id would hand out the same
+// vote ids, and the service refuses to start without one.
+@Component
+public class VoteIdGenerator {
+
+    private static final long EPOCH = 1704067200000L;
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long node;
+    private long lastMillis = -1;
+    private long sequence;
+
+    public VoteIdGenerator(@Value("${vote.id.node-id:-1}") long nodeId) {
+        if (nodeId < 0) {
+            throw new IllegalStateException("vote.id.node-id (VOTE_NODE_ID) must be set to an id between 0 and "
+                    + MAX_NODE + " that no other vote-service replica uses");
+        }
+        if (nodeId > MAX_NODE) {
+            throw new IllegalArgumentException("vote.id.node-id must be between 0 and " + MAX_NODE);
+        }
+        this.node = nodeId;
+    }
+
+    // Strictly increasing on this node; a clock going backwards keeps using the last timestamp
+    public synchronized long nextId() {
+        long now = Math.max(System.currentTimeMillis() - EPOCH, lastMillis);
+        if (now == lastMillis) {
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if (sequence == 0) {
+                // Sequence exhausted for this millisecond: borrow the next one
+                now = lastMillis + 1;
+            }
+        } else {
+            sequence = 0;
+        }
+        lastMillis = now;
+        return (now << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | sequence;
+    }
+
+    // Smallest id any node can allocate at that wall-clock time
+    public static long floorId(long epochMillis) {
+        return Math.max(0, epochMillis - EPOCH) << (NODE_BITS + SEQUENCE_BITS);
+    }
+}
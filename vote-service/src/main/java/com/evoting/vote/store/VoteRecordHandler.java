@@ -0,0 +1,7 @@
+package com.evoting.vote.store;
+
+// candidateId is 0 for encrypted ballots
+@FunctionalInterface
+public interface VoteRecordHandler {
+    void onVote(long id, int electionId, int voterId, int candidateId, long timestampMillis);
+}
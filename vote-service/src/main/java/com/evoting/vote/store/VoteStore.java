@@ -0,0 +1,55 @@
+package com.evoting.vote.store;
+
+import com.evoting.vote.dto.TallyReport;
+import com.evoting.vote.model.Vote;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+// Storage engine behind castVote, selected with vote.storage.mode (jdbc | journal | ledger)
+public interface VoteStore {
+
+    // Blocks until the vote is durable and returns it with its id and timestamp.
+    // Throws AlreadyVotedException when the voter already has a vote in the election, and
+    // ElectionClosedException when the election was closed, possibly through another replica.
+    Vote append(Vote vote);
+
+    // Bulk path for imports: stores the votes in large batches and returns, per vote, whether it
+    // was stored (false means the voter already had a vote in that election, or it is closed)
+    boolean[] appendAll(List<Vote> votes);
+
+    TallyReport tally(Integer electionId);
+
+    // Counts only the votes with afterId < id <= upToId, without locking the table
+    TallyReport tally(Integer electionId, long afterId, long upToId);
+
+    // The voter's stored vote in the election, null when there is none (yet). Settles a cast whose
+    // acknowledgement was lost.
+    Vote find(Integer electionId, Integer voterId);
+
+    // Highest stored vote id of the election, 0 when it has none
+    long maxId(Integer electionId);
+
+    // Highest id a tally checkpoint taken now may cover, at most horizon
+    default long checkpointHorizon(Integer electionId, long horizon) {
+        return horizon;
+    }
+
+    // Runs in the close transaction, after the fence row is in and the watermark taken; stores that hold
+    // ballots back from the id ranges bring them under the watermark here
+    default void fence(Integer electionId, long watermark) {
+    }
+
+    // Packed preferences of the election's ranked ballots with id <= upToId, in no particular order
+    void scanRankedBallots(Integer electionId, long upToId, Consumer<byte[]> rankings);
+
+    // Streams the election's ballots with id <= upToId once, in no particular order. Only id and
+    // candidate are read; voter and timestamp are passed as 0.
+    void scanBallots(Integer electionId, long upToId, VoteRecordHandler handler);
+
+    // Streams the election's votes with afterId < id <= upToId in id order, as scan() would see them
+    void scanElection(Integer electionId, long afterId, long upToId, VoteRecordHandler handler);
+
+    // Streams every stored vote once, in id order, without materializing entities
+    void scan(VoteRecordHandler handler);
+}
@@ -0,0 +1,76 @@
+package com.evoting.vote.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Sparse, lock-free bitmap over the whole int range. Bits live in 8 KB pages of 65536 bits
+// that are only allocated once a bit in their range is set, so clustered ids stay compact.
+public class ConcurrentBitSet {
+
+    private static final int PAGE_BITS = 16;
+    private static final int WORDS_PER_PAGE = (1 << PAGE_BITS) / Long.SIZE;
+
+    private final Map<Integer, AtomicLongArray> pages = new ConcurrentHashMap<>();
+
+    public boolean get(int index) {
+        AtomicLongArray page = pages.get(index >>> PAGE_BITS);
+        if (page == null) {
+            return false;
+        }
+        return (page.get(word(index)) & mask(index)) != 0;
+    }
+
+    // Returns true if the bit was clear and this call set it
+    public boolean set(int index) {
+        AtomicLongArray page = pages.computeIfAbsent(index >>> PAGE_BITS, p -> new AtomicLongArray(WORDS_PER_PAGE));
+        int word = word(index);
+        long mask = mask(index);
+        long current;
+        do {
+            current = page.get(word);
+            if ((current & mask) != 0) {
+                return false;
+            }
+        } while (!page.compareAndSet(word, current, current | mask));
+        return true;
+    }
+
+    public void clear(int index) {
+        AtomicLongArray page = pages.get(index >>> PAGE_BITS);
+        if (page == null) {
+            return;
+        }
+        int word = word(index);
+        long mask = mask(index);
+        long current;
+        do {
+            current = page.get(word);
+            if ((current & mask) == 0) {
+                return;
+            }
+        } while (!page.compareAndSet(word, current, current & ~mask));
+    }
+
+    public long cardinality() {
+        long count = 0;
+        for (AtomicLongArray page : pages.values()) {
+            for (int i = 0; i < page.length(); i++) {
+                count += Long.bitCount(page.get(i));
+            }
+        }
+        return count;
+    }
+
+    public long sizeInBytes() {
+        return (long) pages.size() * WORDS_PER_PAGE * Long.BYTES;
+    }
+
+    private static int word(int index) {
+        return (index & ((1 << PAGE_BITS) - 1)) >>> 6;
+    }
+
+    private static long mask(int index) {
+        return 1L << (index & 63);
+    }
+}
@@ -0,0 +1,109 @@
+package com.evoting.vote.merkle;
+
+import com.evoting.vote.archive.ArchiveIndex;
+import com.evoting.vote.archive.BallotArchive;
+import com.evoting.vote.dto.MerkleProof;
+import com.evoting.vote.dto.MerkleRoot;
+import com.evoting.vote.store.VoteRecordHandler;
+import com.evoting.vote.store.VoteStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MerkleLogServiceTest {
+
+    private static final int ELECTION_ID = 4;
+    private static final int OTHER_ELECTION_ID = 5;
+
+    private final VoteStore voteStore = mock(VoteStore.class);
+    private final BallotArchive ballotArchive = mock(BallotArchive.class);
+    // Stored votes in id order: id, election, voter, candidate
+    private final List<long[]> votes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 1; i <= 300; i++) {
+            int election = i % 4 == 0 ? OTHER_ELECTION_ID : ELECTION_ID;
+            votes.add(new long[] { 1000L * i, election, i, i % 3 + 1 });
+        }
+        doAnswer(invocation -> {
+            int electionId = invocation.getArgument(0);
+            long afterId = invocation.getArgument(1);
+            long upToId = invocation.getArgument(2);
+            VoteRecordHandler handler = invocation.getArgument(3);
+            for (long[] vote : votes) {
+                if (vote[1] == electionId && vote[0] > afterId && vote[0] <= upToId) {
+                    handler.onVote(vote[0], (int) vote[1], (int) vote[2], (int) vote[3], 0L);
+                }
+            }
+            return null;
+        }).when(voteStore).scanElection(anyInt(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void logRebuiltAfterRestartHasTheIncrementalRoot() {
+        MerkleLogService running = service();
+        for (long upToId : new long[] { 1_000, 7_500, 64_000, 65_000, 199_000, 200_500 }) {
+            running.getRoot(ELECTION_ID, upToId);
+        }
+        MerkleRoot incremental = running.getRoot(ELECTION_ID, 300_000);
+
+        MerkleRoot rebuilt = service().getRoot(ELECTION_ID, 300_000);
+
+        assertEquals(225, incremental.getTreeSize());
+        assertEquals(incremental, rebuilt);
+    }
+
+    @Test
+    void proofsAgreeBetweenIncrementalAndRebuiltLogs() {
+        MerkleLogService running = service();
+        running.getRoot(ELECTION_ID, 50_000);
+        running.getRoot(ELECTION_ID, 300_000);
+        MerkleLogService restarted = service();
+        restarted.getRoot(ELECTION_ID, 300_000);
+
+        // Vote 130 000 is the 98th of the election (every fourth vote is elsewhere)
+        MerkleProof before = running.getProofForVote(ELECTION_ID, 130_000, 200L);
+        MerkleProof after = restarted.getProofForVote(ELECTION_ID, 130_000, 200L);
+
+        assertEquals(97, before.getLeafIndex());
+        assertEquals(before, after);
+    }
+
+    @Test
+    void archivedElectionIsRebuiltWithTheSameRoot() {
+        MerkleRoot fromStore = service().getRoot(ELECTION_ID, 300_000);
+
+        when(ballotArchive.index(ELECTION_ID)).thenReturn(new ArchiveIndex());
+        doAnswer(invocation -> {
+            VoteRecordHandler handler = invocation.getArgument(1);
+            for (long[] vote : votes) {
+                if (vote[1] == ELECTION_ID) {
+                    handler.onVote(vote[0], (int) vote[1], (int) vote[2], (int) vote[3], 0L);
+                }
+            }
+            return null;
+        }).when(ballotArchive).scan(anyInt(), any());
+
+        assertEquals(fromStore, service().getRoot(ELECTION_ID, Long.MAX_VALUE));
+    }
+
+    @SuppressWarnings("unchecked")
+    private MerkleLogService service() {
+        ObjectProvider<VoteStore> provider = mock(ObjectProvider.class);
+        when(provider.getObject()).thenReturn(voteStore);
+        // No lag: the horizon is now, above every test id, so proof lookups read the whole election
+        return new MerkleLogService(ballotArchive, provider, "test-leaf-key", 0L);
+    }
+}
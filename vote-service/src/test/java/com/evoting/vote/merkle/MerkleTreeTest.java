@@ -0,0 +1,151 @@
+package com.evoting.vote.merkle;
+
+import org.junit.jupiter.api.Test;
+
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MerkleTreeTest {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    // Leaf inputs and expected roots of the certificate-transparency RFC 6962 reference tests
+    private static final String[] INPUTS = {
+            "", "00", "10", "2021", "3031", "40414243", "5051525354555657",
+            "606162636465666768696a6b6c6d6e6f"
+    };
+
+    private static final String[] ROOTS = {
+            "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855",
+            "6e340b9cffb37a989ca544e6bb780a2c78901d3fb33738768511a30617afa01d",
+            "fac54203e7cc696cf0dfcb42c92a1d9dbaf70ad9e621f4bd8d98662f00e3c125",
+            "aeb6bcfe274b70a14fb067a5e5578264db0fa9b51af5e0ba159158f329e06e77",
+            "d37ee418976dd95753c1c73862b9398fa2a2cf9b4ff0fdfe8b30cd95209614b7",
+            "4e3bbb1f7b478dcfe71fb631631519a3bca12c9aefca1612bfce4c13a86264d4",
+            "76e67dadbcdf1e10e1b74ddc608abd2f98dfb16fbce75277b5232a127f2087ef",
+            "ddb89be403809e325750d3d263cd78929c2942b7942a34b77e122c9594a74c8c",
+            "5dc9da79a70659a9ad559cb701ded9a2ab9d823aad2f4960cfe370eff4604328"
+    };
+
+    @Test
+    void rootsMatchRfc6962Vectors() {
+        MerkleTree tree = tree(INPUTS.length);
+        for (int size = 0; size <= INPUTS.length; size++) {
+            assertEquals(ROOTS[size], HEX.formatHex(tree.root(size)), "size " + size);
+            assertEquals(ROOTS[size], HEX.formatHex(tree(size).root(size)), "fresh tree of size " + size);
+        }
+    }
+
+    @Test
+    void auditPathsMatchRfc6962Vectors() {
+        MerkleTree tree = tree(INPUTS.length);
+        assertPath(tree, 0, 1);
+        assertPath(tree, 2, 3, "fac54203e7cc696cf0dfcb42c92a1d9dbaf70ad9e621f4bd8d98662f00e3c125");
+        assertPath(tree, 1, 5,
+                "6e340b9cffb37a989ca544e6bb780a2c78901d3fb33738768511a30617afa01d",
+                "5f083f0a1a33ca076a95279832580db3e0ef4584bdff1f54c8a360f50de3031e",
+                "bc1a0643b12e4d2d7c77918f44e0f4f79a838b6cf9ec5b5c283e1f4d88599e6b");
+        assertPath(tree, 0, 8,
+                "96a296d224f285c67bee93c30f8a309157f0daa35dc5b87e410b78630a09cfc7",
+                "5f083f0a1a33ca076a95279832580db3e0ef4584bdff1f54c8a360f50de3031e",
+                "6b47aaf29ee3c2af9af889bc1fb9254dabd31177f16232dd6aab035ca39bf6e4");
+        assertPath(tree, 5, 8,
+                "bc1a0643b12e4d2d7c77918f44e0f4f79a838b6cf9ec5b5c283e1f4d88599e6b",
+                "ca854ea128ed050b41b35ffc1b87b8eb2bde461e9e3b5596ece6b9d5975a0ae0",
+                "d37ee418976dd95753c1c73862b9398fa2a2cf9b4ff0fdfe8b30cd95209614b7");
+    }
+
+    // Past the first level buffer (64 nodes) and through many ragged right edges
+    @Test
+    void everyPathVerifiesAgainstItsRoot() {
+        int leaves = 150;
+        MerkleTree tree = new MerkleTree();
+        for (int i = 0; i < leaves; i++) {
+            tree.append(leafHash(new byte[] { (byte) i, (byte) (i >> 8) }));
+        }
+        for (long size = 1; size <= leaves; size++) {
+            byte[] root = tree.root(size);
+            for (long index = 0; index < size; index++) {
+                assertTrue(verify(tree.leaf(index), index, size, tree.proof(index, size), root),
+                        "leaf " + index + " of " + size);
+            }
+        }
+    }
+
+    @Test
+    void appendReturnsTheLeafIndex() {
+        MerkleTree tree = new MerkleTree();
+        assertEquals(0, tree.append(leafHash(new byte[0])));
+        assertEquals(1, tree.append(leafHash(new byte[] { 0 })));
+        assertEquals(2, tree.size());
+    }
+
+    @Test
+    void rejectsSizesAndLeavesOutsideTheTree() {
+        MerkleTree tree = tree(3);
+        assertThrows(IllegalArgumentException.class, () -> tree.root(4));
+        assertThrows(IllegalArgumentException.class, () -> tree.proof(3, 3));
+        assertThrows(IllegalArgumentException.class, () -> tree.proof(2, 2));
+        assertThrows(IllegalArgumentException.class, () -> tree.leaf(-1));
+    }
+
+    private static void assertPath(MerkleTree tree, long index, long size, String... expected) {
+        List<byte[]> path = tree.proof(index, size);
+        assertEquals(List.of(expected), path.stream().map(HEX::formatHex).toList());
+        assertTrue(verify(tree.leaf(index), index, size, path, tree.root(size)));
+    }
+
+    // RFC 9162 section 2.1.3.2, written independently of MerkleTree
+    private static boolean verify(byte[] leaf, long index, long size, List<byte[]> path, byte[] root) {
+        long fn = index;
+        long sn = size - 1;
+        byte[] r = leaf;
+        for (byte[] p : path) {
+            if (sn == 0) {
+                return false;
+            }
+            if ((fn & 1) == 1 || fn == sn) {
+                r = node(p, r);
+                if ((fn & 1) == 0) {
+                    while ((fn & 1) == 0 && fn != 0) {
+                        fn >>= 1;
+                        sn >>= 1;
+                    }
+                }
+            } else {
+                r = node(r, p);
+            }
+            fn >>= 1;
+            sn >>= 1;
+        }
+        return sn == 0 && Arrays.equals(r, root);
+    }
+
+    private static MerkleTree tree(int size) {
+        MerkleTree tree = new MerkleTree();
+        for (int i = 0; i < size; i++) {
+            tree.append(leafHash(HEX.parseHex(INPUTS[i])));
+        }
+        return tree;
+    }
+
+    private static byte[] leafHash(byte[] input) {
+        MessageDigest digest = MerkleTree.sha256();
+        digest.update((byte) 0x00);
+        return digest.digest(input);
+    }
+
+    private static byte[] node(byte[] left, byte[] right) {
+        MessageDigest digest = MerkleTree.sha256();
+        digest.update((byte) 0x01);
+        digest.update(left);
+        return digest.digest(right);
+    }
+}
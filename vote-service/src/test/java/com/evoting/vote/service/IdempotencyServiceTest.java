@@ -0,0 +1,83 @@
+package com.evoting.vote.service;
+
+import com.evoting.vote.dto.VoteRequest;
+import com.evoting.vote.exception.AlreadyVotedException;
+import com.evoting.vote.exception.VoteNotAcknowledgedException;
+import com.evoting.vote.model.Vote;
+import com.evoting.vote.store.VoteStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceTest {
+
+    private static final int VOTER_ID = 7;
+
+    private final VoteStore voteStore = mock(VoteStore.class);
+    private final IdempotencyService service = new IdempotencyService(voteStore, 1000, 60);
+    private final VoteRequest request = request();
+    private final AtomicInteger casts = new AtomicInteger();
+
+    @Test
+    void retryAfterUnacknowledgedCastReturnsTheStoredVote() {
+        unacknowledged();
+        Vote stored = Vote.builder().id(42L).electionId(1).voterId(VOTER_ID).candidateId(3).build();
+        when(voteStore.find(1, VOTER_ID)).thenReturn(stored);
+
+        assertSame(stored, service.execute(VOTER_ID, "k", request, this::cast));
+        assertSame(stored, service.execute(VOTER_ID, "k", request, this::cast));
+        assertEquals(1, casts.get());
+    }
+
+    @Test
+    void retryCastsAgainWhenNothingWasStored() {
+        unacknowledged();
+        Vote saved = Vote.builder().id(43L).electionId(1).voterId(VOTER_ID).candidateId(3).build();
+
+        assertSame(saved, service.execute(VOTER_ID, "k", request, () -> {
+            casts.incrementAndGet();
+            return saved;
+        }));
+        assertEquals(2, casts.get());
+    }
+
+    @Test
+    void retryWhileTheFirstVoteIsStillPendingStaysUnknown() {
+        unacknowledged();
+
+        assertThrows(VoteNotAcknowledgedException.class, () -> service.execute(VOTER_ID, "k", request, () -> {
+            casts.incrementAndGet();
+            throw new AlreadyVotedException();
+        }));
+        // Not a cached 409: the next retry looks again
+        Vote stored = Vote.builder().id(42L).electionId(1).voterId(VOTER_ID).candidateId(3).build();
+        when(voteStore.find(1, VOTER_ID)).thenReturn(stored);
+        assertSame(stored, service.execute(VOTER_ID, "k", request, this::cast));
+    }
+
+    private void unacknowledged() {
+        assertThrows(VoteNotAcknowledgedException.class, () -> service.execute(VOTER_ID, "k", request, () -> {
+            casts.incrementAndGet();
+            throw new VoteNotAcknowledgedException(new TimeoutException());
+        }));
+    }
+
+    private Vote cast() {
+        casts.incrementAndGet();
+        throw new AlreadyVotedException();
+    }
+
+    private static VoteRequest request() {
+        VoteRequest request = new VoteRequest();
+        request.setElectionId(1);
+        request.setCandidateId(3);
+        return request;
+    }
+}
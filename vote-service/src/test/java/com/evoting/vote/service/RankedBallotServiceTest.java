@@ -0,0 +1,102 @@
+package com.evoting.vote.service;
+
+import com.evoting.vote.model.ElectionFence;
+import com.evoting.vote.model.Vote;
+import com.evoting.vote.store.VoteStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RankedBallotServiceTest {
+
+    private static final int ELECTION_ID = 3;
+
+    private final ElectionCatalog electionCatalog = mock(ElectionCatalog.class);
+    private final VoteStore voteStore = mock(VoteStore.class);
+    private final ElectionFenceService electionFence = mock(ElectionFenceService.class);
+    private final RankedBallotService service = new RankedBallotService(electionCatalog, voteStore, electionFence);
+    // Packed rankings as the store would hold them
+    private final List<byte[]> stored = new ArrayList<>();
+    private int[] candidateIds;
+
+    @BeforeEach
+    void setUp() {
+        // 200 candidates: indices and ballot lengths above 127 need the unsigned byte
+        candidateIds = new int[200];
+        for (int i = 0; i < candidateIds.length; i++) {
+            candidateIds[i] = 500 + 7 * i;
+        }
+        when(electionCatalog.candidates(ELECTION_ID)).thenReturn(candidateIds);
+        doAnswer(invocation -> {
+            Consumer<byte[]> rankings = invocation.getArgument(2);
+            stored.forEach(rankings);
+            return null;
+        }).when(voteStore).scanRankedBallots(eq(ELECTION_ID), anyLong(), any());
+    }
+
+    @Test
+    void exportedBallotsDecodeToTheRankedCandidates() throws IOException {
+        List<List<Integer>> rankings = new ArrayList<>();
+        rankings.add(List.of(candidateIds[0]));
+        rankings.add(List.of(candidateIds[199], candidateIds[128], candidateIds[3]));
+        List<Integer> everyone = new ArrayList<>();
+        for (int i = candidateIds.length - 1; i >= 0; i--) {
+            everyone.add(candidateIds[i]);
+        }
+        rankings.add(everyone);
+        for (List<Integer> ranking : rankings) {
+            Vote vote = service.rank(Vote.builder().electionId(ELECTION_ID).build(), ranking);
+            assertEquals(ranking.get(0), vote.getCandidateId());
+            stored.add(vote.getRanking());
+        }
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        service.export(ELECTION_ID, output);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(output.toByteArray()));
+        int[] header = new int[in.readInt()];
+        for (int i = 0; i < header.length; i++) {
+            header[i] = in.readInt();
+        }
+        assertArrayEquals(candidateIds, header);
+        List<List<Integer>> decoded = new ArrayList<>();
+        int length;
+        while ((length = in.read()) >= 0) {
+            List<Integer> ranking = new ArrayList<>();
+            for (int i = 0; i < length; i++) {
+                ranking.add(header[in.readUnsignedByte()]);
+            }
+            decoded.add(ranking);
+        }
+        assertEquals(rankings, decoded);
+    }
+
+    @Test
+    void closedElectionStopsAtItsWatermark() {
+        when(electionFence.fence(ELECTION_ID)).thenReturn(ElectionFence.builder()
+                .electionId(ELECTION_ID)
+                .watermark(42L)
+                .build());
+
+        service.export(ELECTION_ID, new ByteArrayOutputStream());
+
+        verify(voteStore).scanRankedBallots(eq(ELECTION_ID), eq(42L), any());
+    }
+}
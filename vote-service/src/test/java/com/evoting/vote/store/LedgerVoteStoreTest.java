@@ -0,0 +1,164 @@
+package com.evoting.vote.store;
+
+import com.evoting.vote.model.Vote;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LedgerVoteStoreTest {
+
+    private static final int ELECTION_ID = 1;
+    private static final int MIN_ANONYMITY_SET = 100;
+
+    private JdbcTemplate jdbc;
+    // Every ballot_box insert, in the order the store sent it
+    private final List<Integer> insertedCandidates = new ArrayList<>();
+    private LedgerVoteStore store;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = dataSource();
+        jdbc = new JdbcTemplate(dataSource) {
+            @Override
+            public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+                if (sql.startsWith("insert into ballot_box")) {
+                    batchArgs.forEach(args -> insertedCandidates.add((Integer) args[2]));
+                }
+                return super.batchUpdate(sql, batchArgs);
+            }
+        };
+        store = new LedgerVoteStore(jdbc, new TransactionTemplate(new DataSourceTransactionManager(dataSource)),
+                new VoteIdGenerator(0), List.of(), new SimpleMeterRegistry(), 256, 5, 10_000, 10_000,
+                MIN_ANONYMITY_SET, Base64.getEncoder().encodeToString(new byte[32]));
+        store.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        store.stop();
+    }
+
+    @Test
+    void ballotsStayOutOfBallotBoxUntilTheAnonymitySetIsFull() {
+        // One vote per commit, the slowest traffic there is
+        for (int voter = 1; voter < MIN_ANONYMITY_SET; voter++) {
+            store.append(vote(voter));
+        }
+        store.moveBatches();
+
+        assertEquals(0, count("ballot_box"));
+        assertEquals(MIN_ANONYMITY_SET - 1, count("ballot_pool"));
+        assertTrue(insertedCandidates.isEmpty());
+        // The pool shows neither the candidate nor the ranking length
+        assertEquals(1, jdbc.queryForList("select distinct length(sealed) from ballot_pool", Integer.class).size());
+    }
+
+    @Test
+    void participationOrderCannotBeRecoveredFromBallots() {
+        // Voter n votes for candidate n, so a ballot that kept its place would name its voter
+        for (int voter = 1; voter <= MIN_ANONYMITY_SET; voter++) {
+            store.append(vote(voter));
+        }
+        store.moveBatches();
+
+        assertEquals(0, count("ballot_pool"));
+        assertEquals(MIN_ANONYMITY_SET, insertedCandidates.size());
+        assertEquals(candidates(), new HashSet<>(insertedCandidates));
+        assertNotEquals(participationOrder(), insertedCandidates);
+        // A uniform shuffle leaves about one ballot in its voter's place
+        assertTrue(fixedPoints(insertedCandidates) < 10);
+
+        List<Integer> byId = jdbc.queryForList("select candidate_id from ballot_box order by id", Integer.class);
+        assertTrue(fixedPoints(byId) < 10);
+        assertEquals(1, jdbc.queryForObject("select count(distinct batch_id) from ballot_box", Integer.class));
+    }
+
+    @Test
+    void fenceMovesTheRemainderIntoTheLastBatch() {
+        for (int voter = 1; voter <= MIN_ANONYMITY_SET; voter++) {
+            store.append(vote(voter));
+        }
+        store.moveBatches();
+        for (int voter = MIN_ANONYMITY_SET + 1; voter <= MIN_ANONYMITY_SET + 5; voter++) {
+            store.append(vote(voter));
+        }
+        store.moveBatches();
+        assertEquals(5, count("ballot_pool"));
+
+        long watermark = store.maxId(ELECTION_ID) + 1;
+        store.fence(ELECTION_ID, watermark);
+
+        assertEquals(0, count("ballot_pool"));
+        assertEquals(List.of(watermark), jdbc.queryForList("select distinct batch_id from ballot_box", Long.class));
+        assertEquals(MIN_ANONYMITY_SET + 5, store.tally(ELECTION_ID, 0, watermark).getRowsScanned());
+    }
+
+    private int count(String table) {
+        return jdbc.queryForObject("select count(*) from " + table, Integer.class);
+    }
+
+    private static Vote vote(int voter) {
+        return Vote.builder()
+                .electionId(ELECTION_ID)
+                .voterId(voter)
+                .candidateId(voter)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private static Set<Integer> candidates() {
+        return new HashSet<>(participationOrder());
+    }
+
+    private static List<Integer> participationOrder() {
+        List<Integer> order = new ArrayList<>();
+        for (int voter = 1; voter <= MIN_ANONYMITY_SET; voter++) {
+            order.add(voter);
+        }
+        return order;
+    }
+
+    private static int fixedPoints(List<Integer> candidates) {
+        int fixed = 0;
+        for (int i = 0; i < candidates.size(); i++) {
+            if (candidates.get(i) == i + 1) {
+                fixed++;
+            }
+        }
+        return fixed;
+    }
+
+    private static DataSource dataSource() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table participation (id bigint primary key, election_id int, voter_id int, "
+                + "timestamp timestamp(6))");
+        jdbc.execute("alter table participation add constraint uk_participation_election_voter "
+                + "unique (election_id, voter_id)");
+        jdbc.execute("create table ballot_pool (id bigint primary key, election_id int, sealed varbinary(512))");
+        jdbc.execute("create table ballot_box (id bigint primary key, election_id int, candidate_id int, "
+                + "batch_id bigint, ranking varbinary(255))");
+        jdbc.execute("create table election_fence (election_id int primary key, watermark bigint, "
+                + "merkle_tree_size bigint, merkle_root varchar(255), closed_at timestamp(6))");
+        return dataSource;
+    }
+}
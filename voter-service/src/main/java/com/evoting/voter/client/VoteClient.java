@@ -0,0 +1,14 @@
+package com.evoting.voter.client;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+@FeignClient(name = "VOTE-SERVICE")
+public interface VoteClient {
+
+    // Keeps vote-service's eligibility set current between its periodic pulls
+    @PutMapping("/vote/eligibility/{userId}")
+    void updateEligibility(@PathVariable("userId") Integer userId, @RequestParam("eligible") boolean eligible);
+}
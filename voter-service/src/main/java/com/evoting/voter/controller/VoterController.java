@@ -1,16 +1,19 @@
 package com.evoting.voter.controller;
 
+import com.evoting.voter.dto.EligibilitySnapshot;
 import com.evoting.voter.dto.VoterRegistrationRequest;
 import com.evoting.voter.model.Voter;
 import com.evoting.voter.model.VoterStatus;
 import com.evoting.voter.service.VoterService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/voter")
@@ -46,6 +49,13 @@ public class VoterController {
         return service.getAllVoters();
     }
 
+    // Internal endpoint for vote-service: every VERIFIED userId, or with since only what changed
+    @GetMapping("/eligibility")
+    public ResponseEntity<EligibilitySnapshot> getEligibility(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+        return ResponseEntity.ok(service.getEligibility(since));
+    }
+
     @PutMapping("/{id}/status")
     public ResponseEntity<Voter> updateStatus(
             @PathVariable Integer id,
@@ -0,0 +1,18 @@
+package com.evoting.voter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// userIds of VERIFIED voters, or with `since` the voters that gained (granted) or lost (revoked)
+// that status; asOf is the next `since`
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EligibilitySnapshot {
+    private int[] granted;
+    private int[] revoked;
+    private LocalDateTime asOf;
+}
@@ -18,7 +18,9 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Entity
 @EntityListeners(AuditingEntityListener.class)
-@Table(name = "voter")
+@Table(name = "voter", indexes = {
+        @Index(name = "idx_voter_status", columnList = "status, user_id"),
+        @Index(name = "idx_voter_updated_at", columnList = "updated_at") })
 public class Voter {
 
     @Id
@@ -1,12 +1,22 @@
 package com.evoting.voter.repository;
 
 import com.evoting.voter.model.Voter;
+import com.evoting.voter.model.VoterStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface VoterRepository extends JpaRepository<Voter, Integer> {
 
     Optional<Voter> findByUserId(Integer userId);
     Optional<Voter> findByCin(String cin);
+
+    // Only the ids: the full snapshot is read at every vote-service start
+    @Query("select v.userId from Voter v where v.status = :status")
+    List<Integer> findUserIdsByStatus(VoterStatus status);
+
+    List<Voter> findByUpdatedAtAfter(LocalDateTime since);
 }
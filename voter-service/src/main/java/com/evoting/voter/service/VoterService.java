@@ -2,6 +2,8 @@ package com.evoting.voter.service;
 
 import com.evoting.voter.client.OcrClient;
 import com.evoting.voter.client.OcrResponse;
+import com.evoting.voter.client.VoteClient;
+import com.evoting.voter.dto.EligibilitySnapshot;
 import com.evoting.voter.dto.VoterRegistrationRequest;
 import com.evoting.voter.model.Voter;
 import com.evoting.voter.model.VoterStatus;
@@ -18,6 +20,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.Period;
 import java.util.List;
 import java.util.UUID;
@@ -29,6 +32,7 @@ public class VoterService {
 
     private final VoterRepository repository;
     private final OcrClient ocrClient;
+    private final VoteClient voteClient;
 
     @Value("${file.upload-dir:uploads/cin}")
     private String uploadDir;
@@ -105,7 +109,9 @@ public class VoterService {
             voter.setRejectionReason("System error during verification: " + e.getMessage());
         }
 
-        return repository.save(voter);
+        voter = repository.save(voter);
+        notifyEligibility(voter);
+        return voter;
     }
 
     public List<Voter> getAllVoters() {
@@ -124,7 +130,34 @@ public class VoterService {
             voter.setRejectionReason(null); // Clear rejection reason if status is VERIFIED/PENDING
         }
 
-        return repository.save(voter);
+        voter = repository.save(voter);
+        notifyEligibility(voter);
+        return voter;
+    }
+
+    public EligibilitySnapshot getEligibility(LocalDateTime since) {
+        // Taken before the read, so a change committed during it is picked up again by the next call
+        LocalDateTime asOf = LocalDateTime.now();
+        if (since == null) {
+            int[] verified = repository.findUserIdsByStatus(VoterStatus.VERIFIED).stream()
+                    .mapToInt(Integer::intValue).toArray();
+            return new EligibilitySnapshot(verified, new int[0], asOf);
+        }
+        List<Voter> changed = repository.findByUpdatedAtAfter(since);
+        return new EligibilitySnapshot(
+                changed.stream().filter(v -> v.getStatus() == VoterStatus.VERIFIED).mapToInt(Voter::getUserId).toArray(),
+                changed.stream().filter(v -> v.getStatus() != VoterStatus.VERIFIED).mapToInt(Voter::getUserId).toArray(),
+                asOf);
+    }
+
+    // Best effort: reaches one vote-service replica, the others catch up with their next pull
+    private void notifyEligibility(Voter voter) {
+        try {
+            voteClient.updateEligibility(voter.getUserId(), voter.getStatus() == VoterStatus.VERIFIED);
+        } catch (Exception e) {
+            log.warn("Could not notify vote-service of voter {} status {}: {}", voter.getUserId(),
+                    voter.getStatus(), e.getMessage());
+        }
     }
 
     public org.springframework.core.io.Resource getCinImage(Integer id) {